@@ -0,0 +1,27 @@
+package com.sajid.serverManagement.benchmark;
+
+import com.sajid.serverManagement.ServerManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+/**
+ * The real application, started inside the benchmark fork with its base path and data directory
+ * moved to a scratch folder, so services are benchmarked with their actual wiring and settings
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(Path basePath) {
+        // Arguments rather than builder properties, which application.properties would override
+        return new SpringApplicationBuilder(ServerManagementApplication.class)
+                .run("--server.port=0",
+                        "--server.base-path=" + basePath,
+                        "--app.users.directory=" + basePath.resolve("data"),
+                        "--extraction.resume-on-startup=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.com.sajid.serverManagement=WARN");
+    }
+}
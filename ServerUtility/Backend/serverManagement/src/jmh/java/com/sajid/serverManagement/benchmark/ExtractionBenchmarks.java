@@ -0,0 +1,101 @@
+package com.sajid.serverManagement.benchmark;
+
+import com.sajid.serverManagement.dto.ExtractionStatus;
+import com.sajid.serverManagement.service.AsyncExtractionService;
+import com.sajid.serverManagement.service.FileUploadService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end extraction of a synthetic archive through the synchronous service and through an
+ * async task (queueing, status updates and polling included). Each invocation extracts into an
+ * empty target, which is removed again outside the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExtractionBenchmarks {
+
+    @Param({"MANY_SMALL", "FEW_HUGE"})
+    public SyntheticArchive.Layout layout;
+
+    @Param({"STORED", "DEFLATED"})
+    public SyntheticArchive.Compression compression;
+
+    private Path basePath;
+    private Path zip;
+    private ConfigurableApplicationContext context;
+    private FileUploadService fileUploadService;
+    private AsyncExtractionService asyncExtractionService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        basePath = Files.createTempDirectory("extraction-bench");
+        zip = new SyntheticArchive().write(basePath.resolve("ServerZip").resolve("bench.zip"), layout, compression);
+        context = BenchmarkApplication.start(basePath);
+        fileUploadService = context.getBean(FileUploadService.class);
+        asyncExtractionService = context.getBean(AsyncExtractionService.class);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeTarget() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(zip.getParent())) {
+            for (Path path : stream) {
+                if (!path.equals(zip)) {
+                    FileSystemUtils.deleteRecursively(path);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(basePath);
+    }
+
+    @Benchmark
+    public String extractZipFile() throws IOException {
+        return fileUploadService.extractZipFile(zip.toString());
+    }
+
+    @Benchmark
+    public ExtractionStatus extractAsync() throws InterruptedException {
+        String taskId = asyncExtractionService.startExtractionTask(zip.toString());
+        while (true) {
+            ExtractionStatus status = asyncExtractionService.getExtractionStatus(taskId);
+            switch (status.getStatus()) {
+                case COMPLETED:
+                    return status;
+                case FAILED:
+                case CANCELLED:
+                    throw new IllegalStateException("Extraction task " + taskId + " ended " + status.getStatus()
+                            + ": " + status.getErrorMessage());
+                default:
+                    Thread.sleep(1);
+            }
+        }
+    }
+}
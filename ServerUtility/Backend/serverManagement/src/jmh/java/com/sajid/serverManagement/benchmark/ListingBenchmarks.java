@@ -0,0 +1,79 @@
+package com.sajid.serverManagement.benchmark;
+
+import com.sajid.serverManagement.dto.NGFile;
+import com.sajid.serverManagement.dto.ServerInfo;
+import com.sajid.serverManagement.service.ServerScannerService;
+import com.sajid.serverManagement.util.NGFileUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directory listing behind the file browser and the server list, over a base folder with the given
+ * number of entries: half server folders (matching the prefix, one file each), half plain files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingBenchmarks {
+
+    private static final String PREFIX = "NewgenONE";
+
+    @Param({"100", "5000"})
+    public int entries;
+
+    private Path basePath;
+    private ServerScannerService serverScannerService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        basePath = Files.createTempDirectory("listing-bench");
+        for (int i = 0; i < entries; i++) {
+            if (i % 2 == 0) {
+                Path server = Files.createDirectory(basePath.resolve(PREFIX + "-" + i));
+                Files.writeString(server.resolve("standalone.conf"), "JAVA_OPTS=-Xmx2g\n");
+            } else {
+                Files.write(basePath.resolve("build-" + i + ".zip"), new byte[2048]);
+            }
+        }
+        serverScannerService = new ServerScannerService();
+        ReflectionTestUtils.setField(serverScannerService, "basePath", basePath.toString());
+        ReflectionTestUtils.setField(serverScannerService, "prefix", PREFIX);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(basePath);
+    }
+
+    @Benchmark
+    public List<NGFile> getFiles() {
+        return NGFileUtil.getInstance().getFiles(basePath.toString());
+    }
+
+    @Benchmark
+    public List<ServerInfo> listAllServers() {
+        return serverScannerService.listAllServers();
+    }
+}
@@ -0,0 +1,116 @@
+package com.sajid.serverManagement.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates server-like ZIPs for the benchmarks. Content is deterministic and about half
+ * compressible (random bytes interleaved with repeated text), so DEFLATED archives inflate at a
+ * realistic rate instead of the extremes of all-zero or all-random data.
+ */
+public final class SyntheticArchive {
+
+    public enum Layout {
+        MANY_SMALL(20_000, 4 * 1024),           // modules/ of a JBoss distribution
+        FEW_HUGE(4, 64L * 1024 * 1024);         // a handful of large deployments
+
+        private final int files;
+        private final long fileSize;
+
+        Layout(int files, long fileSize) {
+            this.files = files;
+            this.fileSize = fileSize;
+        }
+    }
+
+    public enum Compression {
+        STORED(ZipEntry.STORED),
+        DEFLATED(ZipEntry.DEFLATED);
+
+        private final int method;
+
+        Compression(int method) {
+            this.method = method;
+        }
+    }
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int BLOCKS = 16;
+    private static final String ROOT = "NewgenONE-bench/";
+
+    private final byte[][] blocks = new byte[BLOCKS][BLOCK_SIZE];
+
+    public SyntheticArchive() {
+        Random random = new Random(42);
+        byte[] text = "<module xmlns=\"urn:jboss:module:1.9\" name=\"org.jboss.as.server\">\n"
+                .getBytes(StandardCharsets.UTF_8);
+        for (byte[] block : blocks) {
+            for (int i = 0; i < BLOCK_SIZE; i += 512) {
+                if ((i / 512) % 2 == 0) {
+                    byte[] noise = new byte[512];
+                    random.nextBytes(noise);
+                    System.arraycopy(noise, 0, block, i, 512);
+                } else {
+                    for (int j = 0; j < 512; j++) {
+                        block[i + j] = text[j % text.length];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the archive, with the sizes and CRCs STORED entries need written up front
+     */
+    public Path write(Path zip, Layout layout, Compression compression) throws IOException {
+        Files.createDirectories(zip.toAbsolutePath().getParent());
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zip), 1024 * 1024))) {
+            out.setLevel(6);
+            for (int i = 0; i < layout.files; i++) {
+                ZipEntry entry = new ZipEntry(name(layout, i));
+                entry.setMethod(compression.method);
+                if (compression == Compression.STORED) {
+                    CRC32 crc = new CRC32();
+                    content(i, layout.fileSize, (block, length) -> crc.update(block, 0, length));
+                    entry.setSize(layout.fileSize);
+                    entry.setCompressedSize(layout.fileSize);
+                    entry.setCrc(crc.getValue());
+                }
+                out.putNextEntry(entry);
+                content(i, layout.fileSize, (block, length) -> out.write(block, 0, length));
+                out.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private String name(Layout layout, int index) {
+        return switch (layout) {
+            case MANY_SMALL -> ROOT + "modules/system/layers/base/m" + (index / 100) + "/main/file-" + index + ".jar";
+            case FEW_HUGE -> ROOT + "standalone/deployments/app-" + index + ".war";
+        };
+    }
+
+    private interface BlockSink {
+        void accept(byte[] block, int length) throws IOException;
+    }
+
+    /**
+     * Each file cycles through the shared blocks from its own starting point
+     */
+    private void content(int index, long size, BlockSink sink) throws IOException {
+        long remaining = size;
+        for (int b = index; remaining > 0; b++) {
+            int length = (int) Math.min(BLOCK_SIZE, remaining);
+            sink.accept(blocks[b % BLOCKS], length);
+            remaining -= length;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sajid.serverManagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -11,13 +12,76 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "extractionTaskExecutor")
-    public Executor extractionTaskExecutor() {
+    @Bean(name = "bulkOperationExecutor")
+    public Executor bulkOperationExecutor() {
+        // Runs the coordinator of each bulk job; the per-server work goes to serverOperationExecutor
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);  // Base number of threads
-        executor.setMaxPoolSize(5);   // Maximum number of threads
-        executor.setQueueCapacity(100); // Queue capacity for pending tasks
-        executor.setThreadNamePrefix("extraction-");
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("bulk-job-");
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "serverOperationExecutor")
+    public Executor serverOperationExecutor(@Value("${servers.bulk.max-parallelism:8}") int maxParallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxParallelism);
+        executor.setMaxPoolSize(maxParallelism);
+        executor.setQueueCapacity(500); // A whole patch night worth of servers
+        executor.setThreadNamePrefix("server-op-");
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "standbyExtractionExecutor")
+    public Executor standbyExtractionExecutor(@Value("${standby.pool.extraction-threads:1}") int threads) {
+        // Kept small on purpose: refilling the pool must not compete with operator-triggered extractions
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("standby-");
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "extractionCleanupExecutor")
+    public Executor extractionCleanupExecutor() {
+        // Deletes trees replaced by staged extractions; one at a time, it only competes for disk
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("extraction-cleanup-");
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "deploymentExecutor")
+    public Executor deploymentExecutor() {
+        // Follows the marker files of deployments started without waiting; the threads mostly sleep
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("deployment-");
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "zipWorkerExecutor")
+    public Executor zipWorkerExecutor(@Value("${extraction.parallel.threads:0}") int threads) {
+        // Shared by every extraction; each one hands its file entries to at most this many workers
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setThreadNamePrefix("zip-worker-");
         executor.setKeepAliveSeconds(60);
         executor.initialize();
         return executor;
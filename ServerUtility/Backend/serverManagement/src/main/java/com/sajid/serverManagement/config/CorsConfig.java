@@ -20,6 +20,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                .exposedHeaders("Retry-After")
                 .allowCredentials(false)  // Must be false when using allowedOrigins("*")
                 .maxAge(3600);
     }
@@ -37,6 +38,9 @@ public class CorsConfig implements WebMvcConfigurer {
         // Allow all headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
 
+        // Let clients read when to retry a refused upload or extraction
+        configuration.setExposedHeaders(Arrays.asList("Retry-After"));
+
         // Must be false when using allowedOrigins("*")
         configuration.setAllowCredentials(false);
 
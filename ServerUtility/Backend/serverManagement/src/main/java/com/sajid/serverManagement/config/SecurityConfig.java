@@ -39,12 +39,20 @@ public class SecurityConfig {
                 // Public endpoints - no authentication required
                 .requestMatchers("/api/auth/**","/api/jdks", "/tmpFileUpload").permitAll()
 
+                // Deploy pipeline - ADMIN only, it writes into a server's deployments folder
+                .requestMatchers("/deploy", "/deploy/**").hasRole("ADMIN")
+
                 // File upload and extraction endpoints - ADMIN only
                 .requestMatchers(HttpMethod.POST, "/api/files/upload").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/files/upload-stream").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/files/upload-and-extract").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/files/upload-and-extract-stream").hasRole("ADMIN")
+                .requestMatchers("/api/files/uploads", "/api/files/uploads/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/files/extract").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/files/extract-async").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/files/extraction-benchmark").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/files/extraction-status/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/files/extraction-status/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/files/extraction-status/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/files/delete").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/files/info").hasAnyRole("USER", "ADMIN")
@@ -0,0 +1,154 @@
+package com.sajid.serverManagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sajid.serverManagement.exception.UploadLimitExceededException;
+import com.sajid.serverManagement.service.UploadGovernor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Puts requests carrying an upload body through the {@link UploadGovernor} before anything reads
+ * them: runs ahead of the dispatcher, so a refused multipart upload is answered before the
+ * container spools its body to disk. Raw bodies are handed on throttled; multipart bodies are
+ * parsed by the container itself and only count against the concurrency limit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadGovernorFilter extends OncePerRequestFilter {
+
+    private static final Set<String> UPLOAD_PATHS = Set.of(
+            "/api/files/upload",
+            "/api/files/upload-and-extract",
+            "/api/files/upload-stream",
+            "/api/files/upload-and-extract-stream");
+    private static final Pattern CHUNK_PATH = Pattern.compile("/api/files/uploads/([^/]+)/chunks/[^/]+");
+
+    private final UploadGovernor uploadGovernor;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return uploadId(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String contentType = request.getContentType();
+        boolean multipart = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+        // Reading a parameter of a multipart request would parse its body
+        String fileName = multipart ? null : request.getParameter("filename");
+
+        UploadGovernor.Ticket ticket;
+        try {
+            ticket = uploadGovernor.admit(uploadId(request), request.getRequestURI(), fileName,
+                    request.getContentLengthLong(), !multipart);
+        } catch (UploadLimitExceededException e) {
+            log.warn("Refused upload to {}: {}", request.getRequestURI(), e.getMessage());
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", false);
+            body.put("message", e.getMessage());
+            body.put("activeUploads", e.getActiveUploads());
+            body.put("maxConcurrent", uploadGovernor.getMaxConcurrent());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return;
+        }
+
+        try (ticket) {
+            filterChain.doFilter(multipart ? request : new ShapedRequest(request, ticket), response);
+        }
+    }
+
+    /**
+     * Chunk requests are grouped under their session; any other upload request is an upload of its own
+     */
+    private String uploadId(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if ("POST".equals(request.getMethod()) && UPLOAD_PATHS.contains(path)) {
+            return UUID.randomUUID().toString();
+        }
+        if ("PUT".equals(request.getMethod())) {
+            Matcher matcher = CHUNK_PATH.matcher(path);
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    private static final class ShapedRequest extends HttpServletRequestWrapper {
+
+        private final UploadGovernor.Ticket ticket;
+        private ServletInputStream shaped;
+
+        private ShapedRequest(HttpServletRequest request, UploadGovernor.Ticket ticket) {
+            super(request);
+            this.ticket = ticket;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (shaped == null) {
+                ServletInputStream original = super.getInputStream();
+                InputStream throttled = ticket.throttle(original);
+                shaped = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        return throttled.read();
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        return throttled.read(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return original.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        original.setReadListener(readListener);
+                    }
+                };
+            }
+            return shaped;
+        }
+    }
+}
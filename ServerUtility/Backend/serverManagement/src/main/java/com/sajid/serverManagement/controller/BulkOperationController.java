@@ -0,0 +1,82 @@
+package com.sajid.serverManagement.controller;
+
+import com.sajid.serverManagement.dto.BulkOperationJob;
+import com.sajid.serverManagement.dto.BulkOperationRequest;
+import com.sajid.serverManagement.service.BulkOperationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/servers/bulk")
+public class BulkOperationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperationController.class);
+
+    private final BulkOperationService bulkOperationService;
+
+    public BulkOperationController(BulkOperationService bulkOperationService) {
+        this.bulkOperationService = bulkOperationService;
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> bulkStart(@RequestBody BulkOperationRequest request) {
+        return submit(BulkOperationJob.Action.START, request);
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> bulkStop(@RequestBody BulkOperationRequest request) {
+        return submit(BulkOperationJob.Action.STOP, request);
+    }
+
+    @PostMapping("/restart")
+    public ResponseEntity<Map<String, Object>> bulkRestart(@RequestBody BulkOperationRequest request) {
+        return submit(BulkOperationJob.Action.RESTART, request);
+    }
+
+    @GetMapping("/jobs")
+    public List<BulkOperationJob> listJobs() {
+        return bulkOperationService.listJobs();
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BulkOperationJob> getJob(@PathVariable String jobId) {
+        BulkOperationJob job = bulkOperationService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    private ResponseEntity<Map<String, Object>> submit(BulkOperationJob.Action action, BulkOperationRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            BulkOperationJob job = bulkOperationService.submit(action, request);
+
+            response.put("success", true);
+            response.put("message", "Bulk " + action.name().toLowerCase() + " job started");
+            response.put("jobId", job.getJobId());
+            response.put("statusUrl", "/servers/bulk/jobs/" + job.getJobId());
+            response.put("job", job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk {} request: {}", action, e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (Exception e) {
+            logger.error("Error starting bulk {} job: {}", action, e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to start bulk operation: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
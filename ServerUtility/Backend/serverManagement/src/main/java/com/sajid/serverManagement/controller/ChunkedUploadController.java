@@ -0,0 +1,197 @@
+package com.sajid.serverManagement.controller;
+
+import com.sajid.serverManagement.dto.UploadCompleteRequest;
+import com.sajid.serverManagement.dto.UploadSessionRequest;
+import com.sajid.serverManagement.dto.UploadSessionStatus;
+import com.sajid.serverManagement.exception.ExtractionQueueFullException;
+import com.sajid.serverManagement.service.ArchiveIndex;
+import com.sajid.serverManagement.service.AsyncExtractionService;
+import com.sajid.serverManagement.service.ChunkedUploadService;
+import com.sajid.serverManagement.service.FileUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Resumable upload protocol: POST a session, PUT numbered chunks (raw bodies, several at a time if
+ * wanted), GET the session to see which chunks are still missing after an interruption, then POST
+ * complete to verify the checksum and move the file into ServerZip.
+ */
+@RestController
+@RequestMapping("/api/files/uploads")
+public class ChunkedUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadController.class);
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final AsyncExtractionService asyncExtractionService;
+    private final ArchiveIndex archiveIndex;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService, AsyncExtractionService asyncExtractionService,
+                                   ArchiveIndex archiveIndex) {
+        this.chunkedUploadService = chunkedUploadService;
+        this.asyncExtractionService = asyncExtractionService;
+        this.archiveIndex = archiveIndex;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSession(@RequestBody UploadSessionRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            UploadSessionStatus session = chunkedUploadService.create(request);
+
+            response.put("success", true);
+            response.put("message", "Upload session created");
+            response.put("session", session);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IOException e) {
+            logger.error("Error creating upload session for {}: {}", request.getFileName(), e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to create upload session: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Raw body (application/octet-stream) holding exactly the bytes of chunk {index}
+     */
+    @PutMapping("/{uploadId}/chunks/{index}")
+    public ResponseEntity<Map<String, Object>> uploadChunk(@PathVariable String uploadId, @PathVariable int index,
+                                                           HttpServletRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            int received = chunkedUploadService.writeChunk(uploadId, index, request.getInputStream());
+
+            response.put("success", true);
+            response.put("index", index);
+            response.put("receivedChunks", received);
+            return ResponseEntity.ok(response);
+
+        } catch (NoSuchElementException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (IOException e) {
+            logger.warn("Chunk {} of upload {} failed: {}", index, uploadId, e.getMessage());
+            response.put("success", false);
+            response.put("message", "Failed to write chunk " + index + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionStatus> getSession(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Fails with 409 while chunks are missing; with extract=true the archive is queued for async
+     * extraction, unless it duplicates a stored archive whose extraction is still in place
+     */
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUpload(@PathVariable String uploadId,
+                                                              @RequestBody(required = false) UploadCompleteRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        UploadCompleteRequest complete = request != null ? request : new UploadCompleteRequest();
+        try {
+            FileUploadService.StoredArchive upload = chunkedUploadService.complete(uploadId, complete.getSha256());
+
+            response.put("success", true);
+            response.put("message", upload.duplicate() ? "File already uploaded, using the stored archive"
+                    : "File uploaded successfully");
+            response.put("filePath", upload.filePath());
+            response.put("size", upload.size());
+            response.put("sha256", upload.sha256());
+            response.put("duplicate", upload.duplicate());
+            Optional<Path> extracted = upload.duplicate() ? archiveIndex.findExtraction(upload.sha256()) : Optional.empty();
+            if (complete.isExtract() && extracted.isPresent()) {
+                response.put("message", "File already uploaded and extracted");
+                response.put("extractionPath", extracted.get().toString());
+            } else if (complete.isExtract()) {
+                try {
+                    response.put("taskId", asyncExtractionService.startExtractionTask(upload.filePath()));
+                    response.put("statusUrl", "/api/files/extraction-status/" + response.get("taskId"));
+                } catch (ExtractionQueueFullException e) {
+                    // The upload itself succeeded; the client can start the extraction later
+                    response.put("message", "File uploaded successfully, extraction not started: " + e.getMessage());
+                }
+            }
+            return ResponseEntity.ok(response);
+
+        } catch (NoSuchElementException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (IOException e) {
+            logger.error("Error completing upload {}: {}", uploadId, e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to complete upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> abortUpload(@PathVariable String uploadId) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            chunkedUploadService.abort(uploadId);
+
+            response.put("success", true);
+            response.put("message", "Upload aborted");
+            return ResponseEntity.ok(response);
+
+        } catch (NoSuchElementException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+
+        } catch (IOException e) {
+            logger.error("Error aborting upload {}: {}", uploadId, e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to abort upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
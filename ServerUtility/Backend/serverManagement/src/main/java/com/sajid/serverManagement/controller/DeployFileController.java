@@ -1,15 +1,19 @@
 package com.sajid.serverManagement.controller;
 
 import com.sajid.serverManagement.dto.DeployFileDTO;
+import com.sajid.serverManagement.dto.DeploymentStatus;
 import com.sajid.serverManagement.dto.NGFile;
+import com.sajid.serverManagement.service.DeploymentService;
 import com.sajid.serverManagement.util.NGFileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -17,14 +21,71 @@ import java.util.stream.Collectors;
 @RestController
 public class DeployFileController {
 
+    private static final Logger logger = LoggerFactory.getLogger(DeployFileController.class);
+
+    private final DeploymentService deploymentService;
+
+    public DeployFileController(DeploymentService deploymentService) {
+        this.deploymentService = deploymentService;
+    }
 
     @PostMapping({"/tmpFileUpload"})
     public ResponseEntity<?> upload(@RequestPart("tmpFile") MultipartFile multipartFile, @RequestPart("deployInfo")  DeployFileDTO deployFile) throws IllegalStateException, IOException, IOException {
-        Path filepath = Paths.get(deployFile.deploymentPath(), new String[] { multipartFile.getOriginalFilename() });
-        multipartFile.transferTo(filepath);
+        try {
+            deploymentService.upload(multipartFile, deployFile.deploymentPath());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         return ResponseEntity.ok("File Uploaded Successfully");
     }
 
+    /**
+     * Upload and deploy in one call: answers once the server reports .deployed (200) or .failed
+     * (422), with the time spent in each phase. With wait=false, or when the server takes longer
+     * than the configured timeouts, it answers 202 and GET /deploy/{deploymentId} follows up.
+     */
+    @PostMapping("/deploy")
+    public ResponseEntity<Map<String, Object>> deploy(@RequestPart("tmpFile") MultipartFile multipartFile,
+                                                      @RequestPart("deployInfo") DeployFileDTO deployFile,
+                                                      @RequestParam(value = "wait", defaultValue = "true") boolean wait) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            DeploymentStatus deployment = deploymentService.deploy(multipartFile, deployFile.deploymentPath(), wait);
+
+            response.put("success", deployment.getStatus() != DeploymentStatus.Status.FAILED);
+            response.put("message", deployment.getMessage());
+            response.put("deployment", deployment);
+            response.put("statusUrl", "/deploy/" + deployment.getDeploymentId());
+            return ResponseEntity.status(statusOf(deployment)).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IOException e) {
+            logger.error("Error deploying {}: {}", multipartFile.getOriginalFilename(), e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to deploy file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/deploy/{deploymentId}")
+    public ResponseEntity<DeploymentStatus> getDeployment(@PathVariable String deploymentId) {
+        return deploymentService.getStatus(deploymentId)
+                .map(deployment -> ResponseEntity.status(statusOf(deployment)).body(deployment))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private HttpStatus statusOf(DeploymentStatus deployment) {
+        return switch (deployment.getStatus()) {
+            case DEPLOYED -> HttpStatus.OK;
+            case FAILED -> HttpStatus.UNPROCESSABLE_ENTITY;
+            default -> HttpStatus.ACCEPTED;
+        };
+    }
+
     @PostMapping({"/listFiles"})
     public ResponseEntity<?> listFile(@RequestParam Map<String, String> queryParams, @RequestBody DeployFileDTO deployFile) {
         String fileExtensionToSearch = queryParams.get("ext");
@@ -1,6 +1,7 @@
 package com.sajid.serverManagement.controller;
 
 import com.sajid.serverManagement.dto.ServerInfo;
+import com.sajid.serverManagement.service.AdaptiveWaiter;
 import com.sajid.serverManagement.service.ServerScannerService;
 import com.sajid.serverManagement.service.ServerStatusService;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,10 +18,20 @@ public class DiagnosticController {
 
     private final ServerScannerService scanner;
     private final ServerStatusService status;
+    private final AdaptiveWaiter waiter;
 
-    public DiagnosticController(ServerScannerService scanner, ServerStatusService status) {
+    public DiagnosticController(ServerScannerService scanner, ServerStatusService status, AdaptiveWaiter waiter) {
         this.scanner = scanner;
         this.status = status;
+        this.waiter = waiter;
+    }
+
+    /**
+     * Probe counts and time-to-detect for shutdown/startup waits
+     */
+    @GetMapping("/diagnose/waits")
+    public Map<String, Object> waitStatistics() {
+        return waiter.getStatistics();
     }
 
     @GetMapping("/diagnose")
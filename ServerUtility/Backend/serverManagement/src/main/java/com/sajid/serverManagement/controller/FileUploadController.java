@@ -1,21 +1,42 @@
 package com.sajid.serverManagement.controller;
 
 import com.sajid.serverManagement.dto.ExtractRequest;
+import com.sajid.serverManagement.dto.ExtractionResult;
 import com.sajid.serverManagement.dto.ExtractionStatus;
 import com.sajid.serverManagement.dto.FileOperationResponse;
 import com.sajid.serverManagement.dto.FileUploadResponse;
+import com.sajid.serverManagement.dto.StreamExtractionResult;
+import com.sajid.serverManagement.dto.UploadActivity;
+import com.sajid.serverManagement.exception.ExtractionQueueFullException;
+import com.sajid.serverManagement.service.ArchiveIndex;
 import com.sajid.serverManagement.service.AsyncExtractionService;
+import com.sajid.serverManagement.service.ExtractionBenchmark;
+import com.sajid.serverManagement.service.ExtractionOptions;
+import com.sajid.serverManagement.service.ExtractionScheduler;
 import com.sajid.serverManagement.service.FileUploadService;
+import com.sajid.serverManagement.service.PathPatternFilter;
+import com.sajid.serverManagement.service.UploadGovernor;
+import com.sajid.serverManagement.service.ZipInspectionService;
+import com.sajid.serverManagement.util.ZipIndex;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/files")
@@ -25,10 +46,20 @@ public class FileUploadController {
 
     private final FileUploadService fileUploadService;
     private final AsyncExtractionService asyncExtractionService;
-
-    public FileUploadController(FileUploadService fileUploadService, AsyncExtractionService asyncExtractionService) {
+    private final ExtractionBenchmark extractionBenchmark;
+    private final ZipInspectionService zipInspectionService;
+    private final ArchiveIndex archiveIndex;
+    private final UploadGovernor uploadGovernor;
+
+    public FileUploadController(FileUploadService fileUploadService, AsyncExtractionService asyncExtractionService,
+                                ExtractionBenchmark extractionBenchmark, ZipInspectionService zipInspectionService,
+                                ArchiveIndex archiveIndex, UploadGovernor uploadGovernor) {
         this.fileUploadService = fileUploadService;
         this.asyncExtractionService = asyncExtractionService;
+        this.extractionBenchmark = extractionBenchmark;
+        this.zipInspectionService = zipInspectionService;
+        this.archiveIndex = archiveIndex;
+        this.uploadGovernor = uploadGovernor;
     }
 
     @PostMapping("/upload")
@@ -36,15 +67,17 @@ public class FileUploadController {
         try {
             logger.info("Received file upload request: {}", file.getOriginalFilename());
 
-            String filePath = fileUploadService.uploadZipFile(file);
+            FileUploadService.StoredArchive stored = fileUploadService.uploadZipFile(file);
 
             FileUploadResponse response = new FileUploadResponse(
                 true,
-                "File uploaded successfully",
-                filePath,
+                stored.duplicate() ? "File already uploaded, using the stored archive" : "File uploaded successfully",
+                stored.filePath(),
                 file.getOriginalFilename(),
-                file.getSize()
+                stored.size()
             );
+            response.setSha256(stored.sha256());
+            response.setDuplicate(stored.duplicate());
 
             return ResponseEntity.ok(response);
 
@@ -65,6 +98,96 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * Raw body upload (application/octet-stream), written directly into ServerZip without the
+     * multipart temp file that /upload goes through. With the archive's sha256 given up front, an
+     * archive already stored is returned without reading the body.
+     */
+    @PostMapping("/upload-stream")
+    public ResponseEntity<FileUploadResponse> uploadStream(@RequestParam("filename") String filename,
+                                                           @RequestParam(value = "sha256", required = false) String sha256,
+                                                           HttpServletRequest request) {
+        try {
+            logger.info("Received streaming file upload request: {}", filename);
+
+            FileUploadService.StoredArchive stored = fileUploadService.uploadStream(request.getInputStream(), filename,
+                    request.getContentLengthLong(), sha256);
+
+            FileUploadResponse response = new FileUploadResponse(
+                true,
+                stored.duplicate() ? "File already uploaded, using the stored archive" : "File uploaded successfully",
+                stored.filePath(),
+                filename,
+                stored.size()
+            );
+            response.setSha256(stored.sha256());
+            response.setDuplicate(stored.duplicate());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid streaming upload request: {}", e.getMessage());
+            FileUploadResponse response = new FileUploadResponse(false, e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IOException e) {
+            logger.error("Error streaming file upload: {}", e.getMessage(), e);
+            FileUploadResponse response = new FileUploadResponse(false, "Failed to upload file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Whether an archive with this SHA-256 is stored, and where it was last extracted; lets a client
+     * skip uploading a build the server already has
+     */
+    @GetMapping("/archives/{sha256}")
+    public ResponseEntity<Map<String, Object>> findArchive(@PathVariable String sha256) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            String hash = ArchiveIndex.normalizeSha256(sha256);
+            Optional<Path> archive = archiveIndex.findArchive(hash);
+            if (archive.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "No stored archive with sha256 " + hash);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+            response.put("success", true);
+            response.put("filePath", archive.get().toString());
+            response.put("size", fileUploadService.getFileSize(archive.get().toString()));
+            archiveIndex.findExtraction(hash).ifPresent(dir -> response.put("extractionPath", dir.toString()));
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("message", "Failed to read stored archive: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Upload limits and the uploads running right now, with their throughput
+     */
+    @GetMapping("/upload-governor")
+    public ResponseEntity<Map<String, Object>> getUploadGovernor() {
+        List<UploadActivity> uploads = uploadGovernor.activeUploads();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("maxConcurrent", uploadGovernor.getMaxConcurrent());
+        response.put("perUploadMbPerSecond", uploadGovernor.getPerUploadMbPerSecond());
+        response.put("totalMbPerSecond", uploadGovernor.getTotalMbPerSecond());
+        response.put("activeUploads", uploads.size());
+        response.put("currentMbPerSecond", uploads.stream().mapToDouble(UploadActivity::getCurrentMbPerSecond).sum());
+        response.put("uploads", uploads);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/upload-and-extract")
     public ResponseEntity<FileOperationResponse> uploadAndExtractZipFile(@RequestParam("file") MultipartFile file) {
         try {
@@ -99,6 +222,47 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * Raw body (application/octet-stream), not multipart: entries are inflated while the upload is
+     * still arriving, and the archive is only written to ServerZip when keepArchive is true
+     */
+    @PostMapping("/upload-and-extract-stream")
+    public ResponseEntity<Map<String, Object>> uploadAndExtractStream(@RequestParam("filename") String filename,
+                                                                      @RequestParam(value = "keepArchive", defaultValue = "true") boolean keepArchive,
+                                                                      HttpServletRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            logger.info("Received streaming upload and extract request: {} (keepArchive={})", filename, keepArchive);
+
+            StreamExtractionResult result = fileUploadService.uploadAndExtractStream(
+                    request.getInputStream(), filename, request.getContentLengthLong(), keepArchive);
+
+            response.put("success", true);
+            response.put("message", result.isFallbackUsed()
+                    ? "File uploaded and extracted from the kept archive"
+                    : "File uploaded and extracted while streaming");
+            response.put("result", result);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid streaming upload request: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (IOException e) {
+            logger.error("Error streaming upload and extract: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to upload and extract file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @PostMapping("/extract")
     public ResponseEntity<FileOperationResponse> extractZipFile(@RequestBody ExtractRequest request) {
         try {
@@ -110,18 +274,27 @@ public class FileUploadController {
 
             logger.info("Received file extraction request for: {}", zipFilePath);
 
-            String extractionPath = fileUploadService.extractZipFile(zipFilePath);
+            ExtractionResult result = fileUploadService.extract(zipFilePath, toOptions(request));
 
             FileOperationResponse response = new FileOperationResponse(
                 true,
                 "File extracted successfully",
-                extractionPath,
+                result.getExtractionPath(),
                 true,
                 0
             );
+            response.setExtraction(result);
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            FileOperationResponse response = new FileOperationResponse(false, e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            FileOperationResponse response = new FileOperationResponse(false, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
         } catch (IOException e) {
             logger.error("Error extracting file: {}", e.getMessage(), e);
             FileOperationResponse response = new FileOperationResponse(false, "Failed to extract file: " + e.getMessage());
@@ -147,7 +320,7 @@ public class FileUploadController {
 
             logger.info("Received async file extraction request for: {}", zipFilePath);
 
-            String taskId = asyncExtractionService.startExtractionTask(zipFilePath);
+            String taskId = asyncExtractionService.startExtractionTask(zipFilePath, toOptions(request));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -157,6 +330,23 @@ public class FileUploadController {
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (ExtractionQueueFullException e) {
+            logger.warn("Rejected async extraction of {}: {}", request.getZipFilePath(), e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("queued", e.getQueued());
+            response.put("queuePosition", e.getQueued() + 1);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+
         } catch (Exception e) {
             logger.error("Error starting async extraction: {}", e.getMessage(), e);
             Map<String, Object> response = new HashMap<>();
@@ -183,6 +373,40 @@ public class FileUploadController {
         }
     }
 
+    @PostMapping("/extraction-status/{taskId}/pause")
+    public ResponseEntity<Map<String, Object>> pauseExtractionTask(@PathVariable String taskId) {
+        return controlTask(taskId, "paused", () -> asyncExtractionService.pauseTask(taskId));
+    }
+
+    @PostMapping("/extraction-status/{taskId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeExtractionTask(@PathVariable String taskId) {
+        return controlTask(taskId, "resumed", () -> asyncExtractionService.resumeTask(taskId));
+    }
+
+    @PostMapping("/extraction-status/{taskId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelExtractionTask(@PathVariable String taskId) {
+        return controlTask(taskId, "cancellation requested", () -> asyncExtractionService.cancelTask(taskId));
+    }
+
+    private ResponseEntity<Map<String, Object>> controlTask(String taskId, String outcome, Supplier<ExtractionStatus> action) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            ExtractionStatus status = action.get();
+            if (status == null) {
+                return ResponseEntity.notFound().build();
+            }
+            response.put("success", true);
+            response.put("message", "Extraction task " + outcome);
+            response.put("status", status);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
     @DeleteMapping("/extraction-status/{taskId}")
     public ResponseEntity<Map<String, Object>> cleanupExtractionTask(@PathVariable String taskId) {
         try {
@@ -203,6 +427,130 @@ public class FileUploadController {
         }
     }
 
+    @GetMapping("/extraction-tasks")
+    public ResponseEntity<Map<String, Object>> listExtractionTasks(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                                   @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                   @RequestParam(value = "status", required = false) String status) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        ExtractionStatus.Status filter;
+        try {
+            filter = status == null ? null : ExtractionStatus.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Unknown task status: " + status);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (page < 0 || size < 1 || size > 200) {
+            response.put("success", false);
+            response.put("message", "page must be >= 0 and size between 1 and 200");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("success", true);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("total", asyncExtractionService.countTasks(filter));
+        response.put("tasks", asyncExtractionService.listTasks(filter, page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/extraction-tasks/metrics")
+    public ResponseEntity<Map<String, Object>> getExtractionTaskMetrics() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("metrics", asyncExtractionService.getTaskStoreMetrics());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Time a full extraction of the given archive once per buffer size, to tune extraction.io.buffer-size-kb
+     */
+    @PostMapping("/extraction-benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkExtraction(@RequestParam("zipFilePath") String zipFilePath,
+                                                                   @RequestParam(value = "bufferSizesKb", defaultValue = "64,256,1024,4096") List<Integer> bufferSizesKb) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            logger.info("Received extraction benchmark request for: {} with buffer sizes {}", zipFilePath, bufferSizesKb);
+
+            response.put("success", true);
+            response.put("zipFilePath", zipFilePath);
+            response.put("results", extractionBenchmark.run(zipFilePath, bufferSizesKb));
+            return ResponseEntity.ok(response);
+
+        } catch (IOException e) {
+            logger.error("Error running extraction benchmark: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Benchmark failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Layout of an archive from its central directory only: the detected server root (a folder named
+     * like the archive, else jboss-eap*) and the folders inside it, or inside path when given
+     */
+    @GetMapping("/inspect")
+    public ResponseEntity<Map<String, Object>> inspectZipFile(@RequestParam("zipFilePath") String zipFilePath,
+                                                              @RequestParam(value = "path", required = false) String path) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            Path archive = Paths.get(zipFilePath);
+            ZipInspectionService.Inspection inspection = zipInspectionService.inspect(archive);
+            ZipIndex index = inspection.index();
+
+            String fileName = archive.getFileName().toString();
+            String baseName = fileName.lastIndexOf('.') > 0 ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+            ZipIndex.Folder root = index.detectRoot(baseName);
+            Map<String, Object> layout = new LinkedHashMap<>();
+            layout.put("type", root == null ? "NONE" : root.getName().equals(baseName) ? "BASE_NAME" : "JBOSS_EAP");
+            layout.put("root", root == null ? null : root.getName());
+
+            ZipIndex.Folder listed = path != null ? index.find(path) : root != null ? root : index.getRoot();
+            if (listed == null) {
+                response.put("success", false);
+                response.put("message", "Folder not found in archive: " + path);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            List<Map<String, Object>> folders = new ArrayList<>();
+            for (ZipIndex.Folder folder : listed.getFolders()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("name", folder.getName());
+                item.put("path", folder.getPath());
+                item.put("files", folder.getTotalFiles());
+                item.put("size", folder.getTotalSize());
+                item.put("compressedSize", folder.getTotalCompressedSize());
+                folders.add(item);
+            }
+            Map<String, Object> listing = new LinkedHashMap<>();
+            listing.put("path", listed.getPath());
+            listing.put("files", listed.getDirectFiles());
+            listing.put("folders", folders);
+
+            response.put("success", true);
+            response.put("zipFilePath", zipFilePath);
+            response.put("entries", index.getEntryCount());
+            response.put("folders", index.getFolderCount());
+            response.put("files", index.getRoot().getTotalFiles());
+            response.put("totalSize", index.getRoot().getTotalSize());
+            response.put("totalCompressedSize", index.getRoot().getTotalCompressedSize());
+            response.put("layout", layout);
+            response.put("listing", listing);
+            response.put("cached", inspection.cached());
+            response.put("indexMs", inspection.indexMs());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            logger.error("Error inspecting ZIP file {}: {}", zipFilePath, e.getMessage());
+            response.put("success", false);
+            response.put("message", "Failed to inspect file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<FileOperationResponse> deleteFile(@RequestParam("filePath") String filePath) {
         try {
@@ -254,4 +602,19 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    private ExtractionOptions toOptions(ExtractRequest request) {
+        ExtractionOptions options = ExtractionOptions.defaults();
+        options.setIncremental(request.isIncremental());
+        options.setDeleteOrphans(request.isDeleteOrphans());
+        options.setEntryFilter(PathPatternFilter.of(request.getInclude(), request.getExclude()));
+        if (request.getPriority() != null && !request.getPriority().isBlank()) {
+            try {
+                options.setPriority(ExtractionScheduler.Priority.valueOf(request.getPriority().trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown priority: " + request.getPriority() + " (INTERACTIVE or BACKGROUND)");
+            }
+        }
+        return options;
+    }
 }
@@ -1,8 +1,13 @@
 package com.sajid.serverManagement.controller;
 
+import com.sajid.serverManagement.dto.DrainResult;
 import com.sajid.serverManagement.dto.ServerInfo;
 import com.sajid.serverManagement.exception.NoServerRunningException;
+import com.sajid.serverManagement.exception.ServerOperationConflictException;
 import com.sajid.serverManagement.service.ServerControlService;
+import com.sajid.serverManagement.service.ServerOperationCoordinator;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.ConflictPolicy;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.OperationType;
 import com.sajid.serverManagement.service.ServerScannerService;
 import com.sajid.serverManagement.service.ServerStatusService;
 import org.springframework.http.ResponseEntity;
@@ -21,11 +26,14 @@ public class ServerController {
     private final ServerScannerService scanner;
     private final ServerStatusService status;
     private final ServerControlService control;
+    private final ServerOperationCoordinator coordinator;
 
-    public ServerController(ServerScannerService scanner, ServerStatusService status, ServerControlService control) {
+    public ServerController(ServerScannerService scanner, ServerStatusService status, ServerControlService control,
+                            ServerOperationCoordinator coordinator) {
         this.scanner = scanner;
         this.status = status;
         this.control = control;
+        this.coordinator = coordinator;
     }
 
     @GetMapping
@@ -214,7 +222,8 @@ public class ServerController {
     @PostMapping("/{port}/stop")
     public ResponseEntity<String> stopServer(@PathVariable int port,
                                            @RequestParam(defaultValue = "300") int timeout,
-                                           @RequestParam(defaultValue = "false") boolean confirm) {
+                                           @RequestParam(defaultValue = "false") boolean confirm,
+                                           @RequestParam(defaultValue = "false") boolean queue) {
         try {
             // Validate port number
             if (port < 1 || port > 65535) {
@@ -251,8 +260,11 @@ public class ServerController {
                 }
             }
 
-            // Start shutdown process without end confirmation first
-            boolean shutdownCompleted = control.stopServer(port, timeout, false);
+            // Start shutdown process without end confirmation first; concurrent stops of the same
+            // server join this one, a conflicting start/stop is rejected unless queue=true
+            boolean shutdownCompleted = coordinator.execute(OperationType.STOP,
+                    "Unknown Server".equals(serverName) ? null : serverName, port, policy(queue),
+                    () -> control.stopServer(port, timeout, false));
 
             if (!shutdownCompleted) {
                 return ResponseEntity.status(500).body("Failed to shutdown server '" + serverName + "' on port " + port + " (PID: " + pid + ") within " + timeout + " seconds timeout");
@@ -270,6 +282,8 @@ public class ServerController {
             // Final confirmation provided - complete the termination
             return ResponseEntity.ok("Server '" + serverName + "' on port " + port + " (PID: " + pid + ") terminated successfully");
 
+        } catch (ServerOperationConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Error stopping server on port " + port + ": " + e.getMessage());
         } catch (Exception e) {
@@ -277,6 +291,42 @@ public class ServerController {
         }
     }
 
+    @PostMapping("/{port}/drain")
+    public ResponseEntity<?> drainServer(@PathVariable int port,
+                                         @RequestParam(defaultValue = "60") int suspendTimeout,
+                                         @RequestParam(defaultValue = "300") int timeout,
+                                         @RequestParam(defaultValue = "false") boolean queue) {
+        try {
+            // Validate port number
+            if (port < 1 || port > 65535) {
+                return ResponseEntity.badRequest().body("Invalid port number: " + port);
+            }
+
+            // Validate timeouts
+            if (suspendTimeout < 0 || suspendTimeout > 600) {
+                return ResponseEntity.badRequest().body("Suspend timeout must be between 0 and 600 seconds");
+            }
+            if (timeout < 10 || timeout > 900) {
+                return ResponseEntity.badRequest().body("Timeout must be between 10 and 900 seconds");
+            }
+
+            DrainResult result = coordinator.execute(OperationType.DRAIN, null, port, policy(queue),
+                    () -> control.drainAndStopServer(port, suspendTimeout, timeout));
+
+            if (result.getPid() != null && !result.isStopped()) {
+                return ResponseEntity.status(500).body(result);
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (ServerOperationConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Error draining server on port " + port + ": " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Unexpected error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{port}/stop/cancel")
     public ResponseEntity<String> cancelStop(@PathVariable int port) {
         // This endpoint represents choosing "N" to the "Terminate batch job (Y/N)?" prompt
@@ -284,7 +334,8 @@ public class ServerController {
     }
 
     @PostMapping("/{port}/stop/force")
-    public ResponseEntity<String> forceStopServer(@PathVariable int port) {
+    public ResponseEntity<String> forceStopServer(@PathVariable int port,
+                                                @RequestParam(defaultValue = "false") boolean queue) {
         try {
             // Validate port number
             if (port < 1 || port > 65535) {
@@ -298,7 +349,8 @@ public class ServerController {
             }
 
             // Force stop immediately (10 second timeout)
-            boolean stopped = control.stopServer(port, 10);
+            boolean stopped = coordinator.execute(OperationType.FORCE_STOP, null, port, policy(queue),
+                    () -> control.stopServer(port, 10));
 
             if (stopped) {
                 return ResponseEntity.ok("Server on port " + port + " (PID: " + pid + ") force stopped successfully");
@@ -306,6 +358,8 @@ public class ServerController {
                 return ResponseEntity.status(500).body("Failed to force stop server on port " + port + " (PID: " + pid + ")");
             }
 
+        } catch (ServerOperationConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Error force stopping server on port " + port + ": " + e.getMessage());
         } catch (Exception e) {
@@ -367,7 +421,8 @@ public class ServerController {
     }
 
     @PostMapping("/{name}/start")
-    public ResponseEntity<String> startServer(@PathVariable String name) {
+    public ResponseEntity<String> startServer(@PathVariable String name,
+                                              @RequestParam(defaultValue = "false") boolean queue) {
         try {
             // Validate server name exists in our scanned servers
             List<ServerInfo> allServers = scanner.listAllServers();
@@ -381,27 +436,36 @@ public class ServerController {
                     allServers.stream().map(ServerInfo::name).toList());
             }
 
-            // Check if server is already running
-            Long existingPid = status.getProcessIdUsingPort(8080); // Assuming all servers use 8080
-            if (existingPid != null) {
-                // Check if the running server is this one
-                String commandLine = status.getProcessCommandLine(existingPid);
-                if (commandLine != null && (commandLine.contains(name) || commandLine.contains(targetServer.path()))) {
-                    return ResponseEntity.ok("Server '" + name + "' is already running (PID: " + existingPid + ")");
-                } else {
-                    return ResponseEntity.badRequest().body("Another server is already running on port 8080 (PID: " + existingPid + "). Stop it first.");
+            // The port check and the launch run as one operation per server and port, so racing
+            // start requests cannot both pass the check and spawn duplicate JBoss processes
+            return coordinator.execute(OperationType.START, name, targetServer.port(), policy(queue), () -> {
+                // Check if server is already running
+                Long existingPid = status.getProcessIdUsingPort(8080); // Assuming all servers use 8080
+                if (existingPid != null) {
+                    // Check if the running server is this one
+                    String commandLine = status.getProcessCommandLine(existingPid);
+                    if (commandLine != null && (commandLine.contains(name) || commandLine.contains(targetServer.path()))) {
+                        return ResponseEntity.ok("Server '" + name + "' is already running (PID: " + existingPid + ")");
+                    } else {
+                        return ResponseEntity.badRequest().body("Another server is already running on port 8080 (PID: " + existingPid + "). Stop it first.");
+                    }
                 }
-            }
 
-            // Start the server using its actual path
-            boolean started = control.startServer(targetServer.path());
+                // Start the server using its actual path
+                boolean started = control.startServer(targetServer.path());
 
-            if (started) {
-                return ResponseEntity.ok("Server '" + name + "' started successfully from path: " + targetServer.path());
-            } else {
-                return ResponseEntity.status(500).body("Failed to start server '" + name + "'");
-            }
+                if (started) {
+                    // Stay in flight until the port is bound; until then a second start would pass the port check
+                    boolean bound = control.awaitPortBound(targetServer.port());
+                    return ResponseEntity.ok("Server '" + name + "' started successfully from path: " + targetServer.path() +
+                            (bound ? "" : " (port " + targetServer.port() + " not yet bound)"));
+                } else {
+                    return ResponseEntity.status(500).body("Failed to start server '" + name + "'");
+                }
+            });
 
+        } catch (ServerOperationConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Error starting server '" + name + "': " + e.getMessage());
         } catch (Exception e) {
@@ -491,4 +555,13 @@ public class ServerController {
             return ResponseEntity.status(500).body(status);
         }
     }
+
+    @GetMapping("/operations")
+    public Map<String, Object> getOperations() {
+        return coordinator.getStatistics();
+    }
+
+    private ConflictPolicy policy(boolean queue) {
+        return queue ? ConflictPolicy.QUEUE : ConflictPolicy.REJECT;
+    }
 }
@@ -0,0 +1,71 @@
+package com.sajid.serverManagement.controller;
+
+import com.sajid.serverManagement.dto.StandbyInstance;
+import com.sajid.serverManagement.service.StandbyPoolService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/servers/standby")
+public class StandbyPoolController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandbyPoolController.class);
+
+    private final StandbyPoolService standbyPoolService;
+
+    public StandbyPoolController(StandbyPoolService standbyPoolService) {
+        this.standbyPoolService = standbyPoolService;
+    }
+
+    @GetMapping
+    public Map<String, Object> getPool() {
+        return standbyPoolService.describe();
+    }
+
+    @PostMapping("/promote")
+    public ResponseEntity<Map<String, Object>> promote(@RequestParam("name") String name) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            StandbyInstance instance = standbyPoolService.promote(name);
+
+            response.put("success", true);
+            response.put("message", "Standby instance promoted as '" + name + "'");
+            response.put("instance", instance);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (Exception e) {
+            logger.error("Error promoting standby instance as {}: {}", name, e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to promote standby instance: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/refill")
+    public ResponseEntity<Map<String, Object>> refill() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        int started = standbyPoolService.refill();
+
+        response.put("success", standbyPoolService.isEnabled());
+        response.put("message", standbyPoolService.isEnabled()
+                ? started + " standby instance(s) being prepared"
+                : "Standby pool is not configured");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -104,7 +104,8 @@ public class TestController {
      * @return List of folder names immediately inside the parent.
      */
     public static List<String> getFoldersInside(ZipFile zipFile, String parentFolderName) {
-        List<String> innerFolders = new ArrayList<>();
+        // Insertion-ordered set: a List.contains check per entry is quadratic on large archives
+        Set<String> innerFolders = new LinkedHashSet<>();
 
         // Ensure parentFolderName ends with a forward slash for path matching
         String prefix = parentFolderName.endsWith("/") ? parentFolderName : parentFolderName + "/";
@@ -128,14 +129,11 @@ public class TestController {
                 int nextSlash = relativePath.indexOf('/');
 
                 if (nextSlash > 0) {
-                    String firstLevelFolder = relativePath.substring(0, nextSlash);
-                    if (!innerFolders.contains(firstLevelFolder)) {
-                        innerFolders.add(firstLevelFolder);
-                    }
+                    innerFolders.add(relativePath.substring(0, nextSlash));
                 }
             }
         }
-        return innerFolders;
+        return new ArrayList<>(innerFolders);
     }
 
 }
@@ -0,0 +1,170 @@
+package com.sajid.serverManagement.dto;
+
+import java.util.List;
+import java.util.LongSummaryStatistics;
+
+/**
+ * Bulk start/stop/restart job with per-server progress and aggregated timing
+ */
+public class BulkOperationJob {
+    public enum Action {
+        START, STOP, RESTART
+    }
+
+    public enum Status {
+        PENDING, IN_PROGRESS, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+    }
+
+    private final String jobId;
+    private final Action action;
+    private final boolean rolling;
+    private final int maxParallelism;
+    private final int totalBatches;
+    private final List<BulkServerProgress> servers;
+    private volatile Status status = Status.PENDING;
+    private volatile int completedBatches;
+    private volatile String message;
+    private final long createdTime;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    public BulkOperationJob(String jobId, Action action, boolean rolling, int maxParallelism,
+                            int totalBatches, List<BulkServerProgress> servers) {
+        this.jobId = jobId;
+        this.action = action;
+        this.rolling = rolling;
+        this.maxParallelism = maxParallelism;
+        this.totalBatches = totalBatches;
+        this.servers = servers;
+        this.createdTime = System.currentTimeMillis();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public boolean isRolling() {
+        return rolling;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public int getTotalBatches() {
+        return totalBatches;
+    }
+
+    public int getCompletedBatches() {
+        return completedBatches;
+    }
+
+    public void setCompletedBatches(int completedBatches) {
+        this.completedBatches = completedBatches;
+    }
+
+    public List<BulkServerProgress> getServers() {
+        return servers;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public long getDurationMs() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
+
+    // Aggregated counters and timing
+
+    public long getSucceeded() {
+        return countIn(BulkServerProgress.State.SUCCEEDED);
+    }
+
+    public long getFailed() {
+        return countIn(BulkServerProgress.State.FAILED);
+    }
+
+    public long getSkipped() {
+        return countIn(BulkServerProgress.State.SKIPPED);
+    }
+
+    public long getPending() {
+        return countIn(BulkServerProgress.State.PENDING) + countIn(BulkServerProgress.State.IN_PROGRESS);
+    }
+
+    public long getMinServerDurationMs() {
+        LongSummaryStatistics stats = finishedDurations();
+        return stats.getCount() > 0 ? stats.getMin() : 0;
+    }
+
+    public long getMaxServerDurationMs() {
+        LongSummaryStatistics stats = finishedDurations();
+        return stats.getCount() > 0 ? stats.getMax() : 0;
+    }
+
+    public long getAvgServerDurationMs() {
+        return (long) finishedDurations().getAverage();
+    }
+
+    /**
+     * Sum of per-server durations divided by wall-clock time; shows how much parallelism was achieved
+     */
+    public double getEffectiveParallelism() {
+        long wall = getDurationMs();
+        if (wall <= 0) {
+            return 0;
+        }
+        return Math.round(finishedDurations().getSum() * 100.0 / wall) / 100.0;
+    }
+
+    private long countIn(BulkServerProgress.State state) {
+        return servers.stream().filter(s -> s.getState() == state).count();
+    }
+
+    private LongSummaryStatistics finishedDurations() {
+        return servers.stream()
+                .filter(s -> s.isFinished() && s.getStartTime() > 0)
+                .mapToLong(BulkServerProgress::getDurationMs)
+                .summaryStatistics();
+    }
+}
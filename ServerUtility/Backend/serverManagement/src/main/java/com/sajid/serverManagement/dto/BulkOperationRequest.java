@@ -0,0 +1,60 @@
+package com.sajid.serverManagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkOperationRequest {
+    private List<String> servers = new ArrayList<>();
+    private int maxParallelism = 2;
+    private boolean rolling;
+    private int timeoutSeconds = 300;          // Graceful stop timeout per server
+    private int startupTimeoutSeconds = 600;   // Rolling mode: how long to wait for RUNNING
+
+    public BulkOperationRequest() {}
+
+    public BulkOperationRequest(List<String> servers, int maxParallelism, boolean rolling) {
+        this.servers = servers;
+        this.maxParallelism = maxParallelism;
+        this.rolling = rolling;
+    }
+
+    public List<String> getServers() {
+        return servers;
+    }
+
+    public void setServers(List<String> servers) {
+        this.servers = servers;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public void setMaxParallelism(int maxParallelism) {
+        this.maxParallelism = maxParallelism;
+    }
+
+    public boolean isRolling() {
+        return rolling;
+    }
+
+    public void setRolling(boolean rolling) {
+        this.rolling = rolling;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public int getStartupTimeoutSeconds() {
+        return startupTimeoutSeconds;
+    }
+
+    public void setStartupTimeoutSeconds(int startupTimeoutSeconds) {
+        this.startupTimeoutSeconds = startupTimeoutSeconds;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * Progress of a single server inside a bulk operation job
+ */
+public class BulkServerProgress {
+    public enum State {
+        PENDING, IN_PROGRESS, SUCCEEDED, FAILED, SKIPPED
+    }
+
+    private final String serverName;
+    private final int batch;
+    private volatile State state = State.PENDING;
+    private volatile String phase;
+    private volatile String message;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    public BulkServerProgress(String serverName, int batch) {
+        this.serverName = serverName;
+        this.batch = batch;
+    }
+
+    public void begin(String phase) {
+        this.state = State.IN_PROGRESS;
+        this.phase = phase;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public void finish(State state, String message) {
+        this.state = state;
+        this.message = message;
+        this.endTime = System.currentTimeMillis();
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public int getBatch() {
+        return batch;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public long getDurationMs() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
+
+    public boolean isFinished() {
+        return state == State.SUCCEEDED || state == State.FAILED || state == State.SKIPPED;
+    }
+}
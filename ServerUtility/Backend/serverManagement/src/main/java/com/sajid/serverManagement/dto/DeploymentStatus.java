@@ -0,0 +1,112 @@
+package com.sajid.serverManagement.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DeploymentStatus {
+    public enum Status {
+        UPLOADING, DEPLOYING, DEPLOYED, FAILED, TIMED_OUT
+    }
+
+    private String deploymentId;
+    private String fileName;
+    private String deploymentPath;
+    private Status status;
+    private String message;
+    private String failureReason;       // Contents of the .failed marker written by the server
+    private long startTime;
+    private long endTime;
+    private Map<String, Long> phaseMs = new LinkedHashMap<>();  // upload, publish, scannerPickup, deploy
+    private long totalMs;
+
+    public DeploymentStatus() {}
+
+    public DeploymentStatus(String deploymentId, String fileName, String deploymentPath) {
+        this.deploymentId = deploymentId;
+        this.fileName = fileName;
+        this.deploymentPath = deploymentPath;
+        this.status = Status.UPLOADING;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public void setDeploymentId(String deploymentId) {
+        this.deploymentId = deploymentId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getDeploymentPath() {
+        return deploymentPath;
+    }
+
+    public void setDeploymentPath(String deploymentPath) {
+        this.deploymentPath = deploymentPath;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public Map<String, Long> getPhaseMs() {
+        return phaseMs;
+    }
+
+    public void setPhaseMs(Map<String, Long> phaseMs) {
+        this.phaseMs = phaseMs;
+    }
+
+    public long getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(long totalMs) {
+        this.totalMs = totalMs;
+    }
+}
@@ -0,0 +1,133 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * Outcome of a suspend-then-shutdown drain
+ */
+public class DrainResult {
+    private int port;
+    private int managementPort;
+    private Long pid;
+    private boolean suspended;
+    private boolean drained;            // Active requests reached zero before the cutoff
+    private int activeRequestsAtStart = -1;
+    private int activeRequestsAtCutoff = -1;
+    private long drainDurationMs;
+    private long shutdownDurationMs;
+    private long totalDurationMs;
+    private boolean stopped;
+    private boolean fallbackUsed;       // Management API unreachable, fell back to signal-based stop
+    private String message;
+
+    public DrainResult() {}
+
+    public DrainResult(int port, int managementPort, Long pid) {
+        this.port = port;
+        this.managementPort = managementPort;
+        this.pid = pid;
+    }
+
+    // Getters and Setters
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getManagementPort() {
+        return managementPort;
+    }
+
+    public void setManagementPort(int managementPort) {
+        this.managementPort = managementPort;
+    }
+
+    public Long getPid() {
+        return pid;
+    }
+
+    public void setPid(Long pid) {
+        this.pid = pid;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    public boolean isDrained() {
+        return drained;
+    }
+
+    public void setDrained(boolean drained) {
+        this.drained = drained;
+    }
+
+    public int getActiveRequestsAtStart() {
+        return activeRequestsAtStart;
+    }
+
+    public void setActiveRequestsAtStart(int activeRequestsAtStart) {
+        this.activeRequestsAtStart = activeRequestsAtStart;
+    }
+
+    public int getActiveRequestsAtCutoff() {
+        return activeRequestsAtCutoff;
+    }
+
+    public void setActiveRequestsAtCutoff(int activeRequestsAtCutoff) {
+        this.activeRequestsAtCutoff = activeRequestsAtCutoff;
+    }
+
+    public long getDrainDurationMs() {
+        return drainDurationMs;
+    }
+
+    public void setDrainDurationMs(long drainDurationMs) {
+        this.drainDurationMs = drainDurationMs;
+    }
+
+    public long getShutdownDurationMs() {
+        return shutdownDurationMs;
+    }
+
+    public void setShutdownDurationMs(long shutdownDurationMs) {
+        this.shutdownDurationMs = shutdownDurationMs;
+    }
+
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    public void setTotalDurationMs(long totalDurationMs) {
+        this.totalDurationMs = totalDurationMs;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public void setStopped(boolean stopped) {
+        this.stopped = stopped;
+    }
+
+    public boolean isFallbackUsed() {
+        return fallbackUsed;
+    }
+
+    public void setFallbackUsed(boolean fallbackUsed) {
+        this.fallbackUsed = fallbackUsed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -1,7 +1,14 @@
 package com.sajid.serverManagement.dto;
 
+import java.util.List;
+
 public class ExtractRequest {
     private String zipFilePath;
+    private boolean incremental;        // Only write entries that changed since the last extraction
+    private boolean deleteOrphans;      // Remove files the previous extraction wrote that the new archive no longer contains
+    private String priority;            // Async only: INTERACTIVE (default) or BACKGROUND
+    private List<String> include;       // Path prefixes or globs to extract; empty means everything
+    private List<String> exclude;       // Path prefixes or globs to leave out, applied after include
 
     public ExtractRequest() {}
 
@@ -16,4 +23,44 @@ public class ExtractRequest {
     public void setZipFilePath(String zipFilePath) {
         this.zipFilePath = zipFilePath;
     }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isDeleteOrphans() {
+        return deleteOrphans;
+    }
+
+    public void setDeleteOrphans(boolean deleteOrphans) {
+        this.deleteOrphans = deleteOrphans;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public List<String> getInclude() {
+        return include;
+    }
+
+    public void setInclude(List<String> include) {
+        this.include = include;
+    }
+
+    public List<String> getExclude() {
+        return exclude;
+    }
+
+    public void setExclude(List<String> exclude) {
+        this.exclude = exclude;
+    }
 }
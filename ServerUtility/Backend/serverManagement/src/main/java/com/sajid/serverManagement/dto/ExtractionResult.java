@@ -0,0 +1,163 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * Final counters of one extraction, the same for synchronous and async requests
+ */
+public class ExtractionResult {
+    private String archivePath;
+    private String extractionPath;
+    private boolean staged;             // Written beside the target and swapped in when complete
+    private int totalEntries;
+    private int filesWritten;
+    private long totalBytes;            // Uncompressed size of every file entry
+    private long bytesWritten;
+    private int unchangedEntries;
+    private int resumedEntries;
+    private int deletedOrphans;
+    private int skippedEntries;         // Left out by the include/exclude filter
+    private long skippedBytes;
+    private long skippedCompressedBytes;
+    private int linkedEntries;          // Hardlinked to identical content from an earlier extraction
+    private long linkedBytes;
+    private long durationMs;
+    private double throughputMbPerSecond;
+
+    public ExtractionResult() {}
+
+    // Getters and Setters
+    public String getArchivePath() {
+        return archivePath;
+    }
+
+    public void setArchivePath(String archivePath) {
+        this.archivePath = archivePath;
+    }
+
+    public String getExtractionPath() {
+        return extractionPath;
+    }
+
+    public void setExtractionPath(String extractionPath) {
+        this.extractionPath = extractionPath;
+    }
+
+    public int getTotalEntries() {
+        return totalEntries;
+    }
+
+    public void setTotalEntries(int totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+
+    public int getFilesWritten() {
+        return filesWritten;
+    }
+
+    public void setFilesWritten(int filesWritten) {
+        this.filesWritten = filesWritten;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    public int getUnchangedEntries() {
+        return unchangedEntries;
+    }
+
+    public void setUnchangedEntries(int unchangedEntries) {
+        this.unchangedEntries = unchangedEntries;
+    }
+
+    public int getResumedEntries() {
+        return resumedEntries;
+    }
+
+    public void setResumedEntries(int resumedEntries) {
+        this.resumedEntries = resumedEntries;
+    }
+
+    public int getDeletedOrphans() {
+        return deletedOrphans;
+    }
+
+    public void setDeletedOrphans(int deletedOrphans) {
+        this.deletedOrphans = deletedOrphans;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getThroughputMbPerSecond() {
+        return throughputMbPerSecond;
+    }
+
+    public void setThroughputMbPerSecond(double throughputMbPerSecond) {
+        this.throughputMbPerSecond = throughputMbPerSecond;
+    }
+
+    public int getSkippedEntries() {
+        return skippedEntries;
+    }
+
+    public void setSkippedEntries(int skippedEntries) {
+        this.skippedEntries = skippedEntries;
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public void setSkippedBytes(long skippedBytes) {
+        this.skippedBytes = skippedBytes;
+    }
+
+    public long getSkippedCompressedBytes() {
+        return skippedCompressedBytes;
+    }
+
+    public void setSkippedCompressedBytes(long skippedCompressedBytes) {
+        this.skippedCompressedBytes = skippedCompressedBytes;
+    }
+
+    public boolean isStaged() {
+        return staged;
+    }
+
+    public void setStaged(boolean staged) {
+        this.staged = staged;
+    }
+
+    public int getLinkedEntries() {
+        return linkedEntries;
+    }
+
+    public void setLinkedEntries(int linkedEntries) {
+        this.linkedEntries = linkedEntries;
+    }
+
+    public long getLinkedBytes() {
+        return linkedBytes;
+    }
+
+    public void setLinkedBytes(long linkedBytes) {
+        this.linkedBytes = linkedBytes;
+    }
+}
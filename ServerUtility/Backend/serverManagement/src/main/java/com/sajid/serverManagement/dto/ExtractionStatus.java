@@ -2,7 +2,7 @@ package com.sajid.serverManagement.dto;
 
 public class ExtractionStatus {
     public enum Status {
-        PENDING, IN_PROGRESS, COMPLETED, FAILED
+        PENDING, IN_PROGRESS, PAUSED, COMPLETED, FAILED, CANCELLED
     }
 
     private String taskId;
@@ -14,6 +14,20 @@ public class ExtractionStatus {
     private long startTime;
     private long endTime;
     private String errorMessage;
+    private int totalEntries;
+    private int completedEntries;
+    private long totalBytes;            // Uncompressed, from the central directory
+    private long compressedBytes;
+    private long bytesWritten;
+    private double throughputMbPerSecond;
+    private Long etaSeconds;            // Null until there is enough data to estimate
+    private int unchangedEntries;       // Incremental mode: identical entries that were not rewritten
+    private int deletedOrphans;
+    private int resumedEntries;         // Already written by an interrupted earlier run, skipped via the journal
+    private String priority;            // INTERACTIVE or BACKGROUND
+    private int skippedEntries;         // Left out by the include/exclude filter
+    private long skippedBytes;
+    private int queuePosition;          // 1-based while PENDING in the queue, 0 otherwise
 
     public ExtractionStatus() {}
 
@@ -103,4 +117,116 @@ public class ExtractionStatus {
         }
         return System.currentTimeMillis() - startTime;
     }
+
+    public int getTotalEntries() {
+        return totalEntries;
+    }
+
+    public void setTotalEntries(int totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+
+    public int getCompletedEntries() {
+        return completedEntries;
+    }
+
+    public void setCompletedEntries(int completedEntries) {
+        this.completedEntries = completedEntries;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    public void setCompressedBytes(long compressedBytes) {
+        this.compressedBytes = compressedBytes;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    public double getThroughputMbPerSecond() {
+        return throughputMbPerSecond;
+    }
+
+    public void setThroughputMbPerSecond(double throughputMbPerSecond) {
+        this.throughputMbPerSecond = throughputMbPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public int getUnchangedEntries() {
+        return unchangedEntries;
+    }
+
+    public void setUnchangedEntries(int unchangedEntries) {
+        this.unchangedEntries = unchangedEntries;
+    }
+
+    public int getDeletedOrphans() {
+        return deletedOrphans;
+    }
+
+    public void setDeletedOrphans(int deletedOrphans) {
+        this.deletedOrphans = deletedOrphans;
+    }
+
+    public int getResumedEntries() {
+        return resumedEntries;
+    }
+
+    public void setResumedEntries(int resumedEntries) {
+        this.resumedEntries = resumedEntries;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(int queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    public int getSkippedEntries() {
+        return skippedEntries;
+    }
+
+    public void setSkippedEntries(int skippedEntries) {
+        this.skippedEntries = skippedEntries;
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public void setSkippedBytes(long skippedBytes) {
+        this.skippedBytes = skippedBytes;
+    }
 }
@@ -1,11 +1,15 @@
 package com.sajid.serverManagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class FileOperationResponse {
     private boolean success;
     private String message;
     private String filePath;
     private boolean exists;
     private long fileSize;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ExtractionResult extraction;    // Only set by extraction requests
 
     public FileOperationResponse() {}
 
@@ -62,4 +66,12 @@ public class FileOperationResponse {
     public void setFileSize(long fileSize) {
         this.fileSize = fileSize;
     }
+
+    public ExtractionResult getExtraction() {
+        return extraction;
+    }
+
+    public void setExtraction(ExtractionResult extraction) {
+        this.extraction = extraction;
+    }
 }
@@ -6,6 +6,8 @@ public class FileUploadResponse {
     private String filePath;
     private String originalFilename;
     private long fileSize;
+    private String sha256;
+    private boolean duplicate;
 
     public FileUploadResponse() {}
 
@@ -62,4 +64,20 @@ public class FileUploadResponse {
     public void setFileSize(long fileSize) {
         this.fileSize = fileSize;
     }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public void setDuplicate(boolean duplicate) {
+        this.duplicate = duplicate;
+    }
 }
@@ -0,0 +1,96 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * A pre-extracted (and optionally pre-booted) server directory kept in the standby pool
+ */
+public class StandbyInstance {
+    public enum State {
+        EXTRACTING, READY, BOOTING, WARM, PROMOTED, FAILED
+    }
+
+    private final String id;
+    private volatile String path;
+    private final String sourceZip;
+    private final int portOffset;
+    private volatile State state;
+    private volatile String promotedAs;
+    private volatile String message;
+    private final long createdTime;
+    private volatile long readyTime;
+
+    public StandbyInstance(String id, String path, String sourceZip, int portOffset, State state) {
+        this.id = id;
+        this.path = path;
+        this.sourceZip = sourceZip;
+        this.portOffset = portOffset;
+        this.state = state;
+        this.createdTime = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getSourceZip() {
+        return sourceZip;
+    }
+
+    public int getPortOffset() {
+        return portOffset;
+    }
+
+    public int getHttpPort() {
+        return 8080 + portOffset;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getPromotedAs() {
+        return promotedAs;
+    }
+
+    public void setPromotedAs(String promotedAs) {
+        this.promotedAs = promotedAs;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(long readyTime) {
+        this.readyTime = readyTime;
+    }
+
+    /**
+     * Counts towards the configured pool size (being prepared or ready to promote)
+     */
+    public boolean isAvailableOrPending() {
+        return state == State.EXTRACTING || state == State.READY || state == State.BOOTING || state == State.WARM;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * Outcome of an upload that was inflated while it was still arriving
+ */
+public class StreamExtractionResult {
+    private String extractionPath;
+    private String archivePath;         // Null when the archive copy was not kept
+    private int entries;
+    private long bytesReceived;
+    private long bytesWritten;
+    private long durationMs;
+    private boolean fallbackUsed;       // Archive could not be streamed, extracted from the kept copy instead
+
+    public StreamExtractionResult() {}
+
+    // Getters and Setters
+    public String getExtractionPath() {
+        return extractionPath;
+    }
+
+    public void setExtractionPath(String extractionPath) {
+        this.extractionPath = extractionPath;
+    }
+
+    public String getArchivePath() {
+        return archivePath;
+    }
+
+    public void setArchivePath(String archivePath) {
+        this.archivePath = archivePath;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public void setEntries(int entries) {
+        this.entries = entries;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public void setBytesReceived(long bytesReceived) {
+        this.bytesReceived = bytesReceived;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public boolean isFallbackUsed() {
+        return fallbackUsed;
+    }
+
+    public void setFallbackUsed(boolean fallbackUsed) {
+        this.fallbackUsed = fallbackUsed;
+    }
+}
@@ -0,0 +1,113 @@
+package com.sajid.serverManagement.dto;
+
+public class UploadActivity {
+    private String uploadId;            // Chunked uploads: the session id, shared by all their chunk requests
+    private String path;
+    private String fileName;
+    private long contentLength;         // -1 when the client did not declare it
+    private long bytesReceived;
+    private long startTime;
+    private long elapsedMs;
+    private double averageMbPerSecond;
+    private double currentMbPerSecond;  // Over the last full second
+    private long throttledMs;           // Time spent waiting for the bandwidth caps
+    private int requests;               // Requests of this upload in flight
+    private boolean shaped;             // False for multipart bodies, which the container reads before the governor can
+
+    // Getters and Setters
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public void setBytesReceived(long bytesReceived) {
+        this.bytesReceived = bytesReceived;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public double getAverageMbPerSecond() {
+        return averageMbPerSecond;
+    }
+
+    public void setAverageMbPerSecond(double averageMbPerSecond) {
+        this.averageMbPerSecond = averageMbPerSecond;
+    }
+
+    public double getCurrentMbPerSecond() {
+        return currentMbPerSecond;
+    }
+
+    public void setCurrentMbPerSecond(double currentMbPerSecond) {
+        this.currentMbPerSecond = currentMbPerSecond;
+    }
+
+    public long getThrottledMs() {
+        return throttledMs;
+    }
+
+    public void setThrottledMs(long throttledMs) {
+        this.throttledMs = throttledMs;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public void setRequests(int requests) {
+        this.requests = requests;
+    }
+
+    public boolean isShaped() {
+        return shaped;
+    }
+
+    public void setShaped(boolean shaped) {
+        this.shaped = shaped;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sajid.serverManagement.dto;
+
+public class UploadCompleteRequest {
+    private String sha256;              // Overrides the hash given when the session was created
+    private boolean extract;            // Start an async extraction of the finished archive
+
+    public UploadCompleteRequest() {}
+
+    // Getters and Setters
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public boolean isExtract() {
+        return extract;
+    }
+
+    public void setExtract(boolean extract) {
+        this.extract = extract;
+    }
+}
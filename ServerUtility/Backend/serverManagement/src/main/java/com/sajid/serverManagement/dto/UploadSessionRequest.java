@@ -0,0 +1,43 @@
+package com.sajid.serverManagement.dto;
+
+public class UploadSessionRequest {
+    private String fileName;
+    private long size;                  // Total bytes of the archive
+    private Long chunkSize;             // Bytes per chunk (the last one may be shorter); server default when null
+    private String sha256;              // Optional; checked when the upload is completed
+
+    public UploadSessionRequest() {}
+
+    // Getters and Setters
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public Long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sajid.serverManagement.dto;
+
+/**
+ * Outcome of a polling wait: whether the condition was met, how many probes it took and how long
+ */
+public record WaitResult(String label,
+                         boolean satisfied,
+                         int probes,
+                         long elapsedMs,
+                         long finishedAt) {
+}
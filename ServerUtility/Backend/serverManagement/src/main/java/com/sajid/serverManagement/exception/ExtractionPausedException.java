@@ -0,0 +1,12 @@
+package com.sajid.serverManagement.exception;
+
+/**
+ * Ends an extraction run that was paused, so its threads go back to their pools; the journal it
+ * leaves lets the run be started again where it stopped
+ */
+public class ExtractionPausedException extends RuntimeException {
+
+    public ExtractionPausedException(String message) {
+        super(message);
+    }
+}
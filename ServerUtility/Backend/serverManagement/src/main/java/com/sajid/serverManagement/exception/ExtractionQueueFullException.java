@@ -0,0 +1,24 @@
+package com.sajid.serverManagement.exception;
+
+public class ExtractionQueueFullException extends RuntimeException {
+
+    private final int queued;
+    private final int retryAfterSeconds;
+
+    public ExtractionQueueFullException(String message, int queued, int retryAfterSeconds) {
+        super(message);
+        this.queued = queued;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Tasks waiting ahead; a new task would have been number queued + 1
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
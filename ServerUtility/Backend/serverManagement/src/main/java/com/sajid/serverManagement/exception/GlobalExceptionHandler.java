@@ -96,6 +96,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(errorResponse);
     }
 
+    @ExceptionHandler(ServerOperationConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleServerOperationConflictException(ServerOperationConflictException ex) {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.CONFLICT.value());
+        errorResponse.put("error", "Operation In Progress");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("code", "OPERATION_CONFLICT");
+        errorResponse.put("success", false);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         Map<String, Object> errorResponse = new LinkedHashMap<>();
@@ -0,0 +1,12 @@
+package com.sajid.serverManagement.exception;
+
+public class ServerOperationConflictException extends RuntimeException {
+
+    public ServerOperationConflictException(String message) {
+        super(message);
+    }
+
+    public ServerOperationConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
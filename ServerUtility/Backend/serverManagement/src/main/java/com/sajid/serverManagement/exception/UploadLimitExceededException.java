@@ -0,0 +1,21 @@
+package com.sajid.serverManagement.exception;
+
+public class UploadLimitExceededException extends RuntimeException {
+
+    private final int activeUploads;
+    private final int retryAfterSeconds;
+
+    public UploadLimitExceededException(String message, int activeUploads, int retryAfterSeconds) {
+        super(message);
+        this.activeUploads = activeUploads;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getActiveUploads() {
+        return activeUploads;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,151 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.WaitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Shared poller for shutdown and startup waits. Probes quickly at first and then backs off
+ * exponentially with jitter up to a cap, so fast shutdowns are detected within a few hundred
+ * milliseconds while slow ones don't spawn a netstat/lsof subprocess every interval.
+ */
+@Component
+public class AdaptiveWaiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveWaiter.class);
+
+    private static final int RECENT_RESULTS = 50;
+
+    private final long initialIntervalMs;
+    private final long maxIntervalMs;
+    private final double multiplier;
+    private final double jitter;
+
+    private final AtomicLong totalWaits = new AtomicLong();
+    private final AtomicLong satisfiedWaits = new AtomicLong();
+    private final AtomicLong totalProbes = new AtomicLong();
+    private final AtomicLong totalDetectMs = new AtomicLong();
+    private final Deque<WaitResult> recent = new ArrayDeque<>();
+
+    @Autowired
+    public AdaptiveWaiter(@Value("${servers.wait.initial-interval-ms:100}") long initialIntervalMs,
+                          @Value("${servers.wait.max-interval-ms:2000}") long maxIntervalMs,
+                          @Value("${servers.wait.multiplier:2.0}") double multiplier,
+                          @Value("${servers.wait.jitter:0.2}") double jitter) {
+        if (initialIntervalMs <= 0 || maxIntervalMs < initialIntervalMs) {
+            throw new IllegalArgumentException("Wait intervals must satisfy 0 < initial <= max");
+        }
+        if (multiplier < 1.0 || jitter < 0 || jitter >= 1.0) {
+            throw new IllegalArgumentException("Wait multiplier must be >= 1 and jitter in [0, 1)");
+        }
+        this.initialIntervalMs = initialIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Wait for the condition using the configured backoff
+     */
+    public WaitResult await(String label, long timeoutMs, BooleanSupplier condition) throws InterruptedException {
+        return await(label, timeoutMs, initialIntervalMs, maxIntervalMs, condition);
+    }
+
+    /**
+     * Wait for the condition with a per-call backoff range, e.g. slower probes for server startup
+     */
+    public WaitResult await(String label, long timeoutMs, long initialMs, long maxMs,
+                            BooleanSupplier condition) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMs * 1_000_000L;
+        long interval = initialMs;
+        int probes = 0;
+        boolean satisfied = false;
+
+        while (true) {
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMs <= 0) {
+                break;
+            }
+            Thread.sleep(Math.min(jittered(interval), remainingMs));
+
+            probes++;
+            if (condition.getAsBoolean()) {
+                satisfied = true;
+                break;
+            }
+            interval = Math.min(maxMs, (long) (interval * multiplier));
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        WaitResult result = new WaitResult(label, satisfied, probes, elapsedMs, System.currentTimeMillis());
+        record(result);
+
+        if (satisfied) {
+            logger.info("Wait '{}' satisfied after {} ms ({} probes)", label, elapsedMs, probes);
+        } else {
+            logger.info("Wait '{}' timed out after {} ms ({} probes)", label, elapsedMs, probes);
+        }
+        return result;
+    }
+
+    long jittered(long interval) {
+        if (jitter == 0) {
+            return interval;
+        }
+        double factor = 1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(1, (long) (interval * factor));
+    }
+
+    private void record(WaitResult result) {
+        totalWaits.incrementAndGet();
+        totalProbes.addAndGet(result.probes());
+        if (result.satisfied()) {
+            satisfiedWaits.incrementAndGet();
+            totalDetectMs.addAndGet(result.elapsedMs());
+        }
+        synchronized (recent) {
+            recent.addFirst(result);
+            if (recent.size() > RECENT_RESULTS) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long waits = totalWaits.get();
+        long satisfied = satisfiedWaits.get();
+
+        stats.put("initial_interval_ms", initialIntervalMs);
+        stats.put("max_interval_ms", maxIntervalMs);
+        stats.put("multiplier", multiplier);
+        stats.put("jitter", jitter);
+        stats.put("total_waits", waits);
+        stats.put("satisfied_waits", satisfied);
+        stats.put("timed_out_waits", waits - satisfied);
+        stats.put("total_probes", totalProbes.get());
+        stats.put("avg_probes_per_wait", waits > 0 ? (double) totalProbes.get() / waits : 0);
+        stats.put("avg_time_to_detect_ms", satisfied > 0 ? totalDetectMs.get() / satisfied : 0);
+
+        List<WaitResult> snapshot;
+        synchronized (recent) {
+            snapshot = new ArrayList<>(recent);
+        }
+        stats.put("recent_waits", snapshot);
+        return stats;
+    }
+}
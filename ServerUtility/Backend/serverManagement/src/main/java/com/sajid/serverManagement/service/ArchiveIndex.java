@@ -0,0 +1,210 @@
+package com.sajid.serverManagement.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * SHA-256 of every archive stored in ServerZip by a hashed upload, with the folder it was last
+ * fully extracted into. Lets a re-upload of the same build reuse the archive (and its extraction)
+ * instead of keeping a second copy, and lets a client holding the hash skip the transfer.
+ *
+ * An entry only counts while its archive still has the size and modification time recorded with
+ * it, so archives replaced or deleted behind the index's back are never returned. An extraction
+ * counts until something else is extracted into the same folder. Kept as a properties file in the
+ * data directory.
+ */
+@Component
+public class ArchiveIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveIndex.class);
+
+    private static final String INDEX_FILE = "archive-index.properties";
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    // Guarded by the index's monitor
+    private final Properties entries = new Properties();
+
+    @Value("${upload.dedupe.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.directory:./data}")
+    private String dataDirectory;
+
+    @PostConstruct
+    public synchronized void load() {
+        Path file = indexFile();
+        if (!enabled || !Files.exists(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            entries.load(reader);
+        } catch (IOException e) {
+            logger.warn("Could not read archive index {}: {}", file, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The stored archive with this hash, if it is still there unchanged
+     */
+    public synchronized Optional<Path> findArchive(String sha256) {
+        if (!enabled || sha256 == null) {
+            return Optional.empty();
+        }
+        String archive = entries.getProperty(sha256 + ".archive");
+        if (archive == null) {
+            return Optional.empty();
+        }
+        Path path = Paths.get(archive);
+        try {
+            if (Files.isRegularFile(path)
+                    && Files.size(path) == Long.parseLong(entries.getProperty(sha256 + ".size", "-1"))
+                    && Files.getLastModifiedTime(path).toMillis() == Long.parseLong(entries.getProperty(sha256 + ".modified", "-1"))) {
+                return Optional.of(path);
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Treated as gone
+        }
+        logger.info("Archive {} changed since it was indexed, dropping it from the index", path);
+        clear(sha256);
+        saveQuietly();
+        return Optional.empty();
+    }
+
+    /**
+     * The folder the archive with this hash was last fully extracted into, if nothing else has been
+     * extracted there since
+     */
+    public synchronized Optional<Path> findExtraction(String sha256) {
+        if (findArchive(sha256).isEmpty()) {
+            return Optional.empty();
+        }
+        String extraction = entries.getProperty(sha256 + ".extraction");
+        if (extraction == null || !Files.exists(Paths.get(extraction).resolve(ExtractionManifest.FILE_NAME))) {
+            return Optional.empty();
+        }
+        return Optional.of(Paths.get(extraction));
+    }
+
+    /**
+     * Record an archive just written to its final place; any other hash recorded for the same path is dropped
+     */
+    public synchronized void recordArchive(String sha256, Path archive) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = archive.toAbsolutePath().normalize();
+        String existing = hashOf(path);
+        if (existing != null) {
+            clear(existing);
+        }
+        entries.setProperty(sha256 + ".archive", path.toString());
+        entries.setProperty(sha256 + ".size", Long.toString(Files.size(path)));
+        entries.setProperty(sha256 + ".modified", Long.toString(Files.getLastModifiedTime(path).toMillis()));
+        save();
+    }
+
+    /**
+     * Record a full extraction of the archive; whatever was recorded for the folder before is dropped
+     */
+    public synchronized void recordExtraction(Path archive, Path target) {
+        if (!enabled) {
+            return;
+        }
+        forget(target);
+        String sha256 = hashOf(archive.toAbsolutePath().normalize());
+        if (sha256 != null) {
+            entries.setProperty(sha256 + ".extraction", target.toAbsolutePath().normalize().toString());
+        }
+        saveQuietly();
+    }
+
+    /**
+     * The folder was partially extracted or written by something unindexed, so no archive describes it any more
+     */
+    public synchronized void forgetExtraction(Path target) {
+        if (enabled && forget(target)) {
+            saveQuietly();
+        }
+    }
+
+    /**
+     * Lower-case hex, or null for a blank value
+     *
+     * @throws IllegalArgumentException when it is not a SHA-256
+     */
+    public static String normalizeSha256(String sha256) {
+        if (sha256 == null || sha256.isBlank()) {
+            return null;
+        }
+        String normalized = sha256.trim().toLowerCase(Locale.ROOT);
+        if (!SHA256.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("sha256 must be 64 hexadecimal characters");
+        }
+        return normalized;
+    }
+
+    private String hashOf(Path archive) {
+        String path = archive.toString();
+        for (String key : entries.stringPropertyNames()) {
+            if (key.endsWith(".archive") && path.equals(entries.getProperty(key))) {
+                return key.substring(0, key.length() - ".archive".length());
+            }
+        }
+        return null;
+    }
+
+    private boolean forget(Path target) {
+        String folder = target.toAbsolutePath().normalize().toString();
+        return entries.entrySet().removeIf(e -> ((String) e.getKey()).endsWith(".extraction")
+                && folder.equals(e.getValue()));
+    }
+
+    private void clear(String sha256) {
+        entries.remove(sha256 + ".archive");
+        entries.remove(sha256 + ".size");
+        entries.remove(sha256 + ".modified");
+        entries.remove(sha256 + ".extraction");
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            logger.warn("Could not update archive index: {}", e.getMessage());
+        }
+    }
+
+    private void save() throws IOException {
+        Path file = indexFile();
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(INDEX_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            entries.store(writer, "Stored archives by SHA-256");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path indexFile() {
+        return Paths.get(dataDirectory).resolve(INDEX_FILE);
+    }
+}
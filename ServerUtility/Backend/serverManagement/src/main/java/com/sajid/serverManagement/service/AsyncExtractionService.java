@@ -1,24 +1,32 @@
 package com.sajid.serverManagement.service;
 
+import com.sajid.serverManagement.dto.ExtractionResult;
 import com.sajid.serverManagement.dto.ExtractionStatus;
+import com.sajid.serverManagement.exception.ExtractionPausedException;
+import com.sajid.serverManagement.exception.ExtractionQueueFullException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executor;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.BufferedOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.UUID;
 
 @Service
@@ -26,30 +34,55 @@ public class AsyncExtractionService {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncExtractionService.class);
 
-    // Store extraction status for each task
-    private final ConcurrentHashMap<String, ExtractionStatus> extractionTasks = new ConcurrentHashMap<>();
+    private static final String TASK_FILE_SUFFIX = ".task";
+
+    // Options, with their pause/cancel switch, of tasks that are queued, running or parked at a pause
+    private final ConcurrentHashMap<String, ExtractionOptions> activeTasks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ExtractionScheduler scheduler;
 
     @Autowired
-    @Qualifier("extractionTaskExecutor")
-    private Executor taskExecutor;
+    private ExtractionPipeline extractionPipeline;
+
+    // Status of each task, bounded and backed by the history file
+    @Autowired
+    private ExtractionTaskStore taskStore;
+
+    @Value("${app.users.directory:./data}")
+    private String dataDirectory;
 
-    public CompletableFuture<String> extractZipFileAsync(String zipFilePath, String taskId) {
+    @Value("${extraction.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    public CompletableFuture<String> extractZipFileAsync(String zipFilePath, String taskId, ExtractionOptions options) {
+        return extractZipFileAsync(zipFilePath, taskId, options, true);
+    }
+
+    /**
+     * @param admit false for tasks resumed after a restart, which bypass the queue limit
+     */
+    private CompletableFuture<String> extractZipFileAsync(String zipFilePath, String taskId, ExtractionOptions options,
+                                                          boolean admit) {
         return CompletableFuture.supplyAsync(() -> {
-            ExtractionStatus status = extractionTasks.get(taskId);
+            ExtractionStatus status = taskStore.get(taskId);
             if (status == null) {
                 throw new RuntimeException("Task not found: " + taskId);
             }
 
+            ExtractionControl control = options.getControl();
+            boolean finished = true;
             try {
                 logger.info("Starting async extraction for task: {} - file: {}", taskId, zipFilePath);
 
-                // Update status to in progress
+                // A task paused while queued is parked without starting
+                control.checkpoint();
                 status.setStatus(ExtractionStatus.Status.IN_PROGRESS);
                 status.setMessage("Extraction in progress");
                 status.setProgressPercentage(0);
 
                 // Perform the extraction with progress tracking
-                String extractionPath = performExtractionWithProgress(zipFilePath, status);
+                String extractionPath = performExtractionWithProgress(zipFilePath, options, status);
 
                 // Update status to completed
                 status.setStatus(ExtractionStatus.Status.COMPLETED);
@@ -61,7 +94,35 @@ public class AsyncExtractionService {
                 logger.info("Completed async extraction for task: {} - extracted to: {}", taskId, extractionPath);
                 return extractionPath;
 
+            } catch (ExtractionPausedException e) {
+                if (control.park()) {
+                    logger.info("Parked paused extraction task: {}", taskId);
+                    status.setMessage("Extraction paused; it continues where it stopped when resumed");
+                    finished = false;
+                    return null;
+                }
+                if (!control.isCancelled()) {
+                    // Resumed while the run was stopping
+                    schedule(taskId, zipFilePath, options, false);
+                    finished = false;
+                    return null;
+                }
+                cancelled(status);
+                return null;
+
+            } catch (CancellationException e) {
+                if (interruptedByShutdown(control)) {
+                    finished = false;
+                    return null;
+                }
+                cancelled(status);
+                return null;
+
             } catch (Exception e) {
+                if (interruptedByShutdown(control)) {
+                    finished = false;
+                    return null;
+                }
                 logger.error("Failed async extraction for task: {} - error: {}", taskId, e.getMessage(), e);
 
                 // Update status to failed
@@ -71,120 +132,183 @@ public class AsyncExtractionService {
                 status.setEndTime(System.currentTimeMillis());
 
                 throw new RuntimeException("Extraction failed: " + e.getMessage(), e);
+            } finally {
+                if (finished) {
+                    finish(status);
+                }
             }
-        }, taskExecutor);
+        }, scheduler.executorFor(taskId, options.getPriority(), admit));
     }
 
-    private String performExtractionWithProgress(String zipFilePath, ExtractionStatus status) throws IOException {
-        Path zipPath = Paths.get(zipFilePath);
-
-        if (!Files.exists(zipPath)) {
-            throw new IOException("ZIP file not found: " + zipFilePath);
+    /**
+     * A run cut short by the application stopping (its thread interrupted, channels closed under
+     * it) rather than by the user keeps its task record, so it resumes on the next start
+     */
+    private boolean interruptedByShutdown(ExtractionControl control) {
+        if (control.isCancelled() || !(scheduler.isShuttingDown() || Thread.currentThread().isInterrupted())) {
+            return false;
         }
+        logger.info("Extraction task interrupted by shutdown, it resumes on the next start");
+        return true;
+    }
 
-        // Create extraction directory
-        String fileName = zipPath.getFileName().toString();
-        String folderName = fileName.substring(0, fileName.lastIndexOf('.'));
-        Path extractionDir = zipPath.getParent().resolve(folderName);
-
-        if (!Files.exists(extractionDir)) {
-            Files.createDirectories(extractionDir);
-            logger.info("Created extraction directory: {}", extractionDir);
-        }
-
-        // First pass: count total entries for progress calculation
-        int totalEntries = countZipEntries(zipPath);
-        int processedEntries = 0;
-
-        // Second pass: extract files with progress updates
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipPath.toFile()))) {
-            ZipEntry zipEntry = zis.getNextEntry();
-
-            while (zipEntry != null) {
-                Path newPath = extractionDir.resolve(zipEntry.getName());
+    private void cancelled(ExtractionStatus status) {
+        logger.info("Cancelled async extraction for task: {}", status.getTaskId());
 
-                // Security check to prevent zip slip attacks
-                if (!newPath.normalize().startsWith(extractionDir.normalize())) {
-                    throw new IOException("Bad zip entry: " + zipEntry.getName());
-                }
+        status.setStatus(ExtractionStatus.Status.CANCELLED);
+        status.setMessage("Extraction cancelled; finished entries are journaled and skipped if it is started again");
+        status.setEtaSeconds(null);
+        status.setEndTime(System.currentTimeMillis());
+    }
 
-                if (zipEntry.isDirectory()) {
-                    Files.createDirectories(newPath);
-                } else {
-                    // Create parent directories if they don't exist
-                    if (newPath.getParent() != null) {
-                        Files.createDirectories(newPath.getParent());
-                    }
+    private void finish(ExtractionStatus status) {
+        activeTasks.remove(status.getTaskId());
+        forget(status.getTaskId());
+        taskStore.finished(status);
+    }
 
-                    // Extract file
-                    try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(newPath.toFile()))) {
-                        byte[] buffer = new byte[8192]; // Increased buffer size for better performance
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            bos.write(buffer, 0, len);
-                        }
-                    }
-                }
+    private String performExtractionWithProgress(String zipFilePath, ExtractionOptions options, ExtractionStatus status) throws IOException {
+        long started = System.currentTimeMillis();
+        AtomicInteger lastLoggedDecile = new AtomicInteger();
+        ExtractionResult result = extractionPipeline.extract(Paths.get(zipFilePath), options, progress -> {
+            updateProgress(status, progress, started);
+
+            // Log progress every 10%
+            int decile = progress.getPercentage() / 10;
+            if (decile > lastLoggedDecile.getAndAccumulate(decile, Math::max)) {
+                logger.info("Extraction progress for task {}: {}% ({}/{} bytes, {} MB/s)",
+                    status.getTaskId(), progress.getPercentage(), progress.getBytesWritten(),
+                    progress.getTotalBytes(), String.format("%.1f", status.getThroughputMbPerSecond()));
+            }
+        });
 
-                // Update progress
-                processedEntries++;
-                int progressPercentage = (int) ((processedEntries * 100.0) / totalEntries);
-                status.setProgressPercentage(progressPercentage);
-                status.setMessage("Extracting: " + zipEntry.getName());
+        // Same figure the synchronous endpoint reports, rather than the last sample
+        status.setThroughputMbPerSecond(result.getThroughputMbPerSecond());
+        return result.getExtractionPath();
+    }
 
-                // Log progress every 10%
-                if (processedEntries % Math.max(1, totalEntries / 10) == 0) {
-                    logger.info("Extraction progress for task {}: {}% ({}/{})",
-                        status.getTaskId(), progressPercentage, processedEntries, totalEntries);
-                }
+    /**
+     * From the bytes still to write, or for a tarball (totals unknown until the end) from the share
+     * of the archive still to read
+     */
+    private Long etaSeconds(ParallelZipExtractor.Progress progress, double bytesPerSecond, long elapsedMs) {
+        if (progress.isStreaming()) {
+            long read = progress.getCompressedBytesRead();
+            long total = progress.getTotalCompressedBytes();
+            return read > 0 && total > 0 ? (long) Math.ceil((total - read) * elapsedMs / 1000.0 / read) : null;
+        }
+        return (long) Math.ceil((progress.getTotalBytes() - progress.getUnchangedBytes() - progress.getResumedBytes()
+                - progress.getBytesWritten()) / bytesPerSecond);
+    }
 
-                zipEntry = zis.getNextEntry();
-            }
+    /**
+     * Copy a progress sample into the status; the message string is only built per sample, not per entry
+     */
+    private void updateProgress(ExtractionStatus status, ParallelZipExtractor.Progress progress, long started) {
+        long bytesWritten = progress.getBytesWritten();
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - started);
+        double bytesPerSecond = bytesWritten * 1000.0 / elapsedMs;
+
+        status.setTotalEntries(progress.getTotalEntries());
+        status.setCompletedEntries(progress.getCompletedEntries());
+        status.setTotalBytes(progress.getTotalBytes());
+        status.setCompressedBytes(progress.getTotalCompressedBytes());
+        status.setBytesWritten(bytesWritten);
+        status.setProgressPercentage(progress.getPercentage());
+        status.setThroughputMbPerSecond(bytesPerSecond / (1024 * 1024));
+        status.setEtaSeconds(bytesWritten > 0 ? etaSeconds(progress, bytesPerSecond, elapsedMs) : null);
+        status.setUnchangedEntries(progress.getUnchangedEntries());
+        status.setDeletedOrphans(progress.getDeletedOrphans());
+        status.setResumedEntries(progress.getResumedEntries());
+        status.setSkippedEntries(progress.getSkippedEntries());
+        status.setSkippedBytes(progress.getSkippedBytes());
+        if (status.getStatus() == ExtractionStatus.Status.IN_PROGRESS) {
+            status.setMessage("Extracting: " + progress.getCurrentEntry());
+        }
+    }
 
-            zis.closeEntry();
+    public ExtractionStatus getExtractionStatus(String taskId) {
+        ExtractionStatus status = taskStore.get(taskId);
+        if (status != null) {
+            status.setQueuePosition(status.getStatus() == ExtractionStatus.Status.PENDING
+                    ? scheduler.queuePosition(taskId) : 0);
         }
+        return status;
+    }
 
-        return extractionDir.toString();
+    /**
+     * Newest first, including finished tasks kept in the history
+     */
+    public List<ExtractionStatus> listTasks(ExtractionStatus.Status status, int page, int size) {
+        return taskStore.list(status, page, size);
     }
 
-    private int countZipEntries(Path zipPath) throws IOException {
-        int count = 0;
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipPath.toFile()))) {
-            while (zis.getNextEntry() != null) {
-                count++;
-                zis.closeEntry();
-            }
-        }
-        return count;
+    public int countTasks(ExtractionStatus.Status status) {
+        return taskStore.count(status);
     }
 
-    public ExtractionStatus getExtractionStatus(String taskId) {
-        return extractionTasks.get(taskId);
+    public Map<String, Object> getTaskStoreMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(taskStore.getMetrics());
+        metrics.put("scheduler", scheduler.getMetrics());
+        return metrics;
     }
 
     public void cleanupCompletedTask(String taskId) {
-        ExtractionStatus status = extractionTasks.get(taskId);
+        ExtractionStatus status = taskStore.get(taskId);
         if (status != null &&
             (status.getStatus() == ExtractionStatus.Status.COMPLETED ||
-             status.getStatus() == ExtractionStatus.Status.FAILED)) {
-            extractionTasks.remove(taskId);
+             status.getStatus() == ExtractionStatus.Status.FAILED ||
+             status.getStatus() == ExtractionStatus.Status.CANCELLED)) {
+            taskStore.remove(taskId);
             logger.info("Cleaned up extraction task: {}", taskId);
         }
     }
 
     public String startExtractionTask(String zipFilePath) {
+        return startExtractionTask(zipFilePath, ExtractionOptions.defaults());
+    }
+
+    public String startExtractionTask(String zipFilePath, ExtractionOptions options) {
         String taskId = UUID.randomUUID().toString();
+        submit(taskId, zipFilePath, options, "Extraction task queued", true);
+        return taskId;  // Return immediately without waiting for extraction
+    }
 
-        ExtractionStatus status = new ExtractionStatus(taskId, ExtractionStatus.Status.PENDING, "Extraction task queued");
+    /**
+     * @throws ExtractionQueueFullException when admit is set and the queue is full; nothing is left behind
+     */
+    private void submit(String taskId, String zipFilePath, ExtractionOptions options, String message, boolean admit) {
+        ExtractionStatus status = new ExtractionStatus(taskId, ExtractionStatus.Status.PENDING, message);
         status.setZipFilePath(zipFilePath);
-        extractionTasks.put(taskId, status);
+        status.setPriority(options.getPriority().name());
+        taskStore.put(status);
+
+        ExtractionControl control = new ExtractionControl();
+        options.setControl(control);
+        activeTasks.put(taskId, options);
+        remember(taskId, zipFilePath, options);
+
+        try {
+            schedule(taskId, zipFilePath, options, admit);
+        } catch (ExtractionQueueFullException e) {
+            activeTasks.remove(taskId);
+            forget(taskId);
+            taskStore.discard(taskId);
+            throw e;
+        }
 
-        // Start async extraction using CompletableFuture.supplyAsync with custom executor
-        extractZipFileAsync(zipFilePath, taskId)
+        logger.info("Extraction task {} queued and started asynchronously", taskId);
+    }
+
+    /**
+     * Queue a run of the task; a task already accepted once passes admit=false
+     */
+    private void schedule(String taskId, String zipFilePath, ExtractionOptions options, boolean admit) {
+        extractZipFileAsync(zipFilePath, taskId, options, admit)
             .whenComplete((result, exception) -> {
                 if (exception != null) {
                     logger.error("Async extraction failed for task {}: {}", taskId, exception.getMessage());
-                    ExtractionStatus failedStatus = extractionTasks.get(taskId);
+                    ExtractionStatus failedStatus = taskStore.get(taskId);
                     if (failedStatus != null) {
                         failedStatus.setStatus(ExtractionStatus.Status.FAILED);
                         failedStatus.setMessage("Extraction failed");
@@ -193,8 +317,139 @@ public class AsyncExtractionService {
                     }
                 }
             });
+    }
 
-        logger.info("Extraction task {} queued and started asynchronously", taskId);
-        return taskId;  // Return immediately without waiting for extraction
+    /**
+     * The running workers stop at their next checkpoint and hand their threads back
+     *
+     * @return the updated status, or null when the task is unknown
+     */
+    public ExtractionStatus pauseTask(String taskId) {
+        ExtractionStatus status = taskStore.get(taskId);
+        if (status == null) {
+            return null;
+        }
+        ExtractionControl control = activeControl(taskId, status);
+        control.pause();
+        status.setStatus(ExtractionStatus.Status.PAUSED);
+        status.setMessage("Extraction paused");
+        status.setEtaSeconds(null);
+        logger.info("Paused extraction task {}", taskId);
+        return status;
+    }
+
+    public ExtractionStatus resumeTask(String taskId) {
+        ExtractionStatus status = taskStore.get(taskId);
+        if (status == null) {
+            return null;
+        }
+        ExtractionControl control = activeControl(taskId, status);
+        status.setStatus(ExtractionStatus.Status.IN_PROGRESS);
+        status.setMessage("Extraction in progress");
+        if (control.resume()) {
+            // Its run ended at the pause; the journal lets the new one skip what is done
+            status.setStatus(ExtractionStatus.Status.PENDING);
+            status.setMessage("Resumed, waiting for an extraction slot");
+            schedule(taskId, status.getZipFilePath(), activeTasks.get(taskId), false);
+        }
+        logger.info("Resumed extraction task {}", taskId);
+        return status;
+    }
+
+    /**
+     * Workers stop at their next checkpoint; the status turns CANCELLED once they have
+     */
+    public ExtractionStatus cancelTask(String taskId) {
+        ExtractionStatus status = taskStore.get(taskId);
+        if (status == null) {
+            return null;
+        }
+        if (activeControl(taskId, status).cancel()) {
+            // Parked at a pause, so no run is left to notice
+            cancelled(status);
+            finish(status);
+            return status;
+        }
+        status.setMessage("Cancelling extraction");
+        logger.info("Cancelling extraction task {}", taskId);
+        return status;
+    }
+
+    private ExtractionControl activeControl(String taskId, ExtractionStatus status) {
+        ExtractionOptions options = activeTasks.get(taskId);
+        ExtractionControl control = options == null ? null : options.getControl();
+        if (control == null || control.isCancelled()) {
+            throw new IllegalStateException("Extraction task " + taskId + " is " + status.getStatus() + " and can no longer be changed");
+        }
+        return control;
+    }
+
+    /**
+     * Restart tasks that were running or queued when the application stopped. Their journals make
+     * them skip every entry that was already written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedTasks() {
+        Path registry = registryDir();
+        if (!resumeOnStartup || !Files.isDirectory(registry)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(registry, "*" + TASK_FILE_SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String taskId = fileName.substring(0, fileName.length() - TASK_FILE_SUFFIX.length());
+                Properties task = new Properties();
+                try (Reader reader = Files.newBufferedReader(file)) {
+                    task.load(reader);
+                }
+
+                ExtractionOptions options = ExtractionOptions.defaults();
+                options.setIncremental(Boolean.parseBoolean(task.getProperty("incremental")));
+                options.setDeleteOrphans(Boolean.parseBoolean(task.getProperty("deleteOrphans")));
+                options.setEntryFilter(PathPatternFilter.of(patterns(task.getProperty("include")),
+                        patterns(task.getProperty("exclude"))));
+                // Resumed work yields to whatever operators start now
+                options.setPriority(ExtractionScheduler.Priority.BACKGROUND);
+                logger.info("Resuming extraction task {} interrupted by a restart", taskId);
+                submit(taskId, task.getProperty("zipFilePath"), options, "Resuming after restart", false);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read interrupted extraction tasks from {}: {}", registry, e.getMessage());
+        }
+    }
+
+    private void remember(String taskId, String zipFilePath, ExtractionOptions options) {
+        Properties task = new Properties();
+        task.setProperty("zipFilePath", zipFilePath);
+        task.setProperty("incremental", Boolean.toString(options.isIncremental()));
+        task.setProperty("deleteOrphans", Boolean.toString(options.isDeleteOrphans()));
+        if (options.getEntryFilter() instanceof PathPatternFilter filter) {
+            task.setProperty("include", String.join("\n", filter.getInclude()));
+            task.setProperty("exclude", String.join("\n", filter.getExclude()));
+        }
+        try {
+            Files.createDirectories(registryDir());
+            try (Writer writer = Files.newBufferedWriter(registryDir().resolve(taskId + TASK_FILE_SUFFIX))) {
+                task.store(writer, "In-flight extraction task");
+            }
+        } catch (IOException e) {
+            logger.warn("Could not record extraction task {}; it will not resume after a restart: {}", taskId, e.getMessage());
+        }
+    }
+
+    private List<String> patterns(String recorded) {
+        return recorded == null || recorded.isEmpty() ? List.of() : List.of(recorded.split("\n"));
+    }
+
+    private void forget(String taskId) {
+        try {
+            Files.deleteIfExists(registryDir().resolve(taskId + TASK_FILE_SUFFIX));
+        } catch (IOException e) {
+            logger.warn("Could not remove extraction task record {}: {}", taskId, e.getMessage());
+        }
+    }
+
+    private Path registryDir() {
+        return Paths.get(dataDirectory, "extraction-tasks");
     }
 }
@@ -0,0 +1,373 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.BulkOperationJob;
+import com.sajid.serverManagement.dto.BulkOperationRequest;
+import com.sajid.serverManagement.dto.BulkServerProgress;
+import com.sajid.serverManagement.dto.ServerInfo;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.ConflictPolicy;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.OperationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs start/stop/restart across many servers with a bounded number of concurrent operations.
+ * Rolling mode processes servers in batches of maxParallelism and waits for every server in a
+ * batch to reach RUNNING before the next batch begins. Finished jobs stay listed for a TTL.
+ */
+@Service
+public class BulkOperationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperationService.class);
+
+    private static final long STARTUP_INITIAL_INTERVAL_MS = 1000;
+    private static final long STARTUP_MAX_INTERVAL_MS = 10_000;
+
+    private final ConcurrentHashMap<String, BulkOperationJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ServerScannerService scanner;
+
+    @Autowired
+    private ServerStatusService statusService;
+
+    @Autowired
+    private ServerControlService controlService;
+
+    @Autowired
+    private AdaptiveWaiter waiter;
+
+    @Autowired
+    private ServerOperationCoordinator coordinator;
+
+    @Autowired
+    @Qualifier("bulkOperationExecutor")
+    private Executor jobExecutor;
+
+    @Autowired
+    @Qualifier("serverOperationExecutor")
+    private Executor serverExecutor;
+
+    @Value("${servers.bulk.max-parallelism:8}")
+    private int parallelismLimit;
+
+    @Value("${servers.bulk.jobs.ttl-minutes:60}")
+    private long jobTtlMinutes;
+
+    @Value("${servers.bulk.jobs.max-size:100}")
+    private int maxJobs;
+
+    public BulkOperationJob submit(BulkOperationJob.Action action, BulkOperationRequest request) {
+        if (request.getServers() == null || request.getServers().isEmpty()) {
+            throw new IllegalArgumentException("At least one server name is required");
+        }
+        if (request.getMaxParallelism() < 1 || request.getMaxParallelism() > parallelismLimit) {
+            throw new IllegalArgumentException("maxParallelism must be between 1 and " + parallelismLimit);
+        }
+
+        // Resolve every name up front so a typo fails the request instead of half a maintenance window
+        // A name listed twice resolves to the first server with it, as a lookup by name would
+        Map<String, ServerInfo> known = scanner.listAllServers().stream()
+                .collect(Collectors.toMap(ServerInfo::name, Function.identity(), (first, second) -> first));
+        List<ServerInfo> targets = new ArrayList<>();
+        for (String name : request.getServers().stream().distinct().toList()) {
+            ServerInfo server = known.get(name);
+            if (server == null) {
+                throw new IllegalArgumentException("Server '" + name + "' not found");
+            }
+            targets.add(server);
+        }
+
+        int parallelism = request.getMaxParallelism();
+        int totalBatches = request.isRolling() ? (targets.size() + parallelism - 1) / parallelism : 1;
+
+        List<BulkServerProgress> progress = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            int batch = request.isRolling() ? i / parallelism + 1 : 1;
+            progress.add(new BulkServerProgress(targets.get(i).name(), batch));
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        BulkOperationJob job = new BulkOperationJob(jobId, action, request.isRolling(), parallelism, totalBatches, progress);
+        jobs.put(jobId, job);
+        evictFinishedJobs();
+
+        CompletableFuture.runAsync(() -> runJob(job, targets, request), jobExecutor)
+                .whenComplete((result, exception) -> {
+                    if (exception != null) {
+                        logger.error("Bulk job {} failed: {}", jobId, exception.getMessage(), exception);
+                        job.setStatus(BulkOperationJob.Status.FAILED);
+                        job.setMessage("Bulk operation failed: " + exception.getMessage());
+                        job.setEndTime(System.currentTimeMillis());
+                    }
+                });
+
+        logger.info("Bulk {} job {} queued for {} servers (parallelism={}, rolling={})",
+                action, jobId, targets.size(), parallelism, request.isRolling());
+        return job;
+    }
+
+    public BulkOperationJob getJob(String jobId) {
+        evictFinishedJobs();
+        return jobs.get(jobId);
+    }
+
+    public List<BulkOperationJob> listJobs() {
+        evictFinishedJobs();
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong(BulkOperationJob::getCreatedTime).reversed())
+                .toList();
+    }
+
+    /**
+     * Finished jobs are dropped after the TTL, and the oldest finished ones first once there are more
+     * than max-size; running and queued jobs are never dropped
+     */
+    private void evictFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - jobTtlMinutes * 60_000;
+        jobs.values().removeIf(job -> job.getEndTime() > 0 && job.getEndTime() < cutoff);
+
+        int excess = jobs.size() - maxJobs;
+        if (excess > 0) {
+            jobs.values().stream()
+                    .filter(job -> job.getEndTime() > 0)
+                    .sorted(Comparator.comparingLong(BulkOperationJob::getEndTime))
+                    .limit(excess)
+                    .toList()
+                    .forEach(job -> jobs.remove(job.getJobId(), job));
+        }
+    }
+
+    private void runJob(BulkOperationJob job, List<ServerInfo> targets, BulkOperationRequest request) {
+        job.setStatus(BulkOperationJob.Status.IN_PROGRESS);
+        job.setStartTime(System.currentTimeMillis());
+
+        if (job.isRolling()) {
+            runRolling(job, targets, request);
+        } else {
+            runWindowed(job, targets, request);
+        }
+
+        job.setEndTime(System.currentTimeMillis());
+        job.setStatus(job.getFailed() > 0 ? BulkOperationJob.Status.COMPLETED_WITH_ERRORS : BulkOperationJob.Status.COMPLETED);
+        job.setMessage(String.format("%d succeeded, %d failed, %d skipped in %d ms",
+                job.getSucceeded(), job.getFailed(), job.getSkipped(), job.getDurationMs()));
+        logger.info("Bulk {} job {} finished: {}", job.getAction(), job.getJobId(), job.getMessage());
+    }
+
+    /**
+     * Sliding window: at most maxParallelism servers are being operated on at any moment
+     */
+    private void runWindowed(BulkOperationJob job, List<ServerInfo> targets, BulkOperationRequest request) {
+        Semaphore permits = new Semaphore(job.getMaxParallelism());
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+
+        for (int i = 0; i < targets.size(); i++) {
+            ServerInfo server = targets.get(i);
+            BulkServerProgress progress = job.getServers().get(i);
+            permits.acquireUninterruptibly();
+            try {
+                running.add(CompletableFuture
+                        .runAsync(() -> runServer(job.getAction(), server, progress, request, false), serverExecutor)
+                        .whenComplete((result, exception) -> permits.release()));
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                rejected(job, server, progress, e);
+            }
+        }
+
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        job.setCompletedBatches(1);
+    }
+
+    /**
+     * Rolling: one batch at a time, each batch must reach RUNNING before the next one starts.
+     * A failed batch halts the rollout so a bad build does not take down every server.
+     */
+    private void runRolling(BulkOperationJob job, List<ServerInfo> targets, BulkOperationRequest request) {
+        int parallelism = job.getMaxParallelism();
+
+        for (int from = 0; from < targets.size(); from += parallelism) {
+            int to = Math.min(from + parallelism, targets.size());
+            List<CompletableFuture<Void>> batch = new ArrayList<>();
+
+            for (int i = from; i < to; i++) {
+                ServerInfo server = targets.get(i);
+                BulkServerProgress progress = job.getServers().get(i);
+                try {
+                    batch.add(CompletableFuture.runAsync(
+                            () -> runServer(job.getAction(), server, progress, request, true), serverExecutor));
+                } catch (RejectedExecutionException e) {
+                    rejected(job, server, progress, e);
+                }
+            }
+
+            CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+            job.setCompletedBatches(job.getCompletedBatches() + 1);
+
+            boolean batchFailed = job.getServers().subList(from, to).stream()
+                    .anyMatch(s -> s.getState() == BulkServerProgress.State.FAILED);
+            if (batchFailed) {
+                for (BulkServerProgress remaining : job.getServers().subList(to, targets.size())) {
+                    remaining.finish(BulkServerProgress.State.SKIPPED, "Skipped: batch " + remaining.getBatch()
+                            + " not started because an earlier batch failed");
+                }
+                logger.warn("Rolling {} job {} halted after batch {} failed", job.getAction(), job.getJobId(),
+                        job.getCompletedBatches());
+                return;
+            }
+        }
+    }
+
+    /**
+     * The server operation pool is full; the server counts as failed rather than taking the job down
+     */
+    private void rejected(BulkOperationJob job, ServerInfo server, BulkServerProgress progress, RejectedExecutionException e) {
+        logger.warn("Bulk {} job {} could not queue server {}: {}", job.getAction(), job.getJobId(), server.name(), e.getMessage());
+        progress.finish(BulkServerProgress.State.FAILED, "Not started: the server operation queue is full");
+    }
+
+    private void runServer(BulkOperationJob.Action action, ServerInfo server, BulkServerProgress progress,
+                           BulkOperationRequest request, boolean waitForRunning) {
+        try {
+            // Queue behind any single-server operation on the same server or port instead of racing it
+            coordinator.execute(operationType(action), server.name(), server.port(), ConflictPolicy.QUEUE, () -> {
+                perform(action, server, progress, request, waitForRunning);
+                return null;
+            });
+            if (!progress.isFinished()) {
+                // Joined an identical request that was already in flight
+                progress.finish(BulkServerProgress.State.SUCCEEDED, "Completed by a concurrent identical request");
+            }
+        } catch (Exception e) {
+            logger.error("Bulk {} failed for server {}: {}", action, server.name(), e.getMessage(), e);
+            progress.finish(BulkServerProgress.State.FAILED, "Error: " + e.getMessage());
+        }
+    }
+
+    private OperationType operationType(BulkOperationJob.Action action) {
+        return switch (action) {
+            case START -> OperationType.START;
+            case STOP -> OperationType.STOP;
+            case RESTART -> OperationType.RESTART;
+        };
+    }
+
+    private void perform(BulkOperationJob.Action action, ServerInfo server, BulkServerProgress progress,
+                         BulkOperationRequest request, boolean waitForRunning) throws Exception {
+        switch (action) {
+            case START -> {
+                progress.begin("STARTING");
+                start(server, progress, request, waitForRunning);
+            }
+            case STOP -> {
+                progress.begin("STOPPING");
+                stop(server, progress, request, true);
+            }
+            case RESTART -> {
+                progress.begin("STOPPING");
+                if (stop(server, progress, request, false)) {
+                    progress.setPhase("STARTING");
+                    start(server, progress, request, waitForRunning);
+                }
+            }
+        }
+    }
+
+    private void start(ServerInfo server, BulkServerProgress progress, BulkOperationRequest request,
+                       boolean waitForRunning) throws Exception {
+        Long existingPid = statusService.getProcessIdUsingPort(server.port());
+        if (existingPid != null) {
+            if (ownsProcess(server, existingPid)) {
+                progress.finish(BulkServerProgress.State.SKIPPED, "Already running (PID: " + existingPid + ")");
+            } else {
+                progress.finish(BulkServerProgress.State.FAILED, "Another server is already running on port "
+                        + server.port() + " (PID: " + existingPid + ")");
+            }
+            return;
+        }
+
+        if (!controlService.startServer(server.path())) {
+            progress.finish(BulkServerProgress.State.FAILED, "Start command failed");
+            return;
+        }
+
+        if (!waitForRunning) {
+            boolean bound = controlService.awaitPortBound(server.port());
+            progress.finish(BulkServerProgress.State.SUCCEEDED, bound ? "Started, port " + server.port() + " bound"
+                    : "Start command issued, port " + server.port() + " not yet bound");
+            return;
+        }
+
+        progress.setPhase("WAITING_FOR_RUNNING");
+        if (waitUntilRunning(server, request.getStartupTimeoutSeconds())) {
+            progress.finish(BulkServerProgress.State.SUCCEEDED, "Server is RUNNING");
+        } else {
+            progress.finish(BulkServerProgress.State.FAILED, "Server did not reach RUNNING within "
+                    + request.getStartupTimeoutSeconds() + " seconds");
+        }
+    }
+
+    /**
+     * @param finalStep true for a plain stop; false when a start follows (restart)
+     * @return true when the caller may continue (server stopped or was not running)
+     */
+    private boolean stop(ServerInfo server, BulkServerProgress progress, BulkOperationRequest request,
+                         boolean finalStep) throws Exception {
+        Long pid = statusService.getProcessIdUsingPort(server.port());
+        if (pid == null || !ownsProcess(server, pid)) {
+            if (finalStep) {
+                progress.finish(BulkServerProgress.State.SKIPPED, "Not running");
+            }
+            return true;
+        }
+
+        boolean stopped = controlService.stopServer(server.port(), request.getTimeoutSeconds());
+        if (!stopped) {
+            progress.finish(BulkServerProgress.State.FAILED, "Failed to stop within " + request.getTimeoutSeconds() + " seconds");
+            return false;
+        }
+
+        if (finalStep) {
+            progress.finish(BulkServerProgress.State.SUCCEEDED, "Stopped (was PID: " + pid + ")");
+        }
+        return true;
+    }
+
+    private boolean waitUntilRunning(ServerInfo server, int timeoutSeconds) throws InterruptedException {
+        // JBoss takes tens of seconds to boot, so probe from 1s and back off to 10s
+        return waiter.await("startup:" + server.name(), timeoutSeconds * 1000L,
+                STARTUP_INITIAL_INTERVAL_MS, STARTUP_MAX_INTERVAL_MS,
+                () -> statusService.getProcessIdUsingPort(server.port()) != null &&
+                        "RUNNING".equals(controlService.getServerStartupStatus(server.path())))
+                .satisfied();
+    }
+
+    /**
+     * Same matching the single-server endpoints use: the server name or path shows up in the
+     * process command line or working directory
+     */
+    private boolean ownsProcess(ServerInfo server, Long pid) {
+        String commandLine = statusService.getProcessCommandLine(pid);
+        String workingDir = statusService.getProcessWorkingDirectory(pid);
+        return (commandLine != null && (commandLine.toLowerCase().contains(server.name().toLowerCase()) ||
+                commandLine.contains(server.path()))) ||
+                (workingDir != null && (workingDir.contains(server.name()) || workingDir.contains(server.path())));
+    }
+}
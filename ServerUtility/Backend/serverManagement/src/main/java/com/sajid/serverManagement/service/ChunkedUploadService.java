@@ -0,0 +1,452 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.UploadSessionRequest;
+import com.sajid.serverManagement.dto.UploadSessionStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads of large archives in numbered chunks. A session fixes the file name, size and
+ * chunk size; chunks may then arrive in any order and several at a time, each written at its own
+ * offset of a preallocated part file with positional {@link FileChannel} writes, so parallel
+ * chunks never share a stream position. Received chunk numbers are appended to a log beside the
+ * part file, which lets a session outlive a dropped connection or an application restart: the
+ * client asks which chunks are missing and sends only those. Completing a session checks that
+ * every chunk is there, verifies the SHA-256 and renames the part file into ServerZip, unless an
+ * identical archive is stored there already.
+ *
+ * Part files are kept in ServerZip/.uploads, on the same volume as their final place. Sessions
+ * untouched for the TTL are deleted when the next one is created.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String UPLOADS_FOLDER = ".uploads";
+    private static final String SESSION_SUFFIX = ".session";
+    private static final String PART_SUFFIX = ".part";
+    private static final String CHUNKS_SUFFIX = ".chunks";
+    private static final long MB = 1024 * 1024;
+    private static final long MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    private static final Pattern SESSION_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Value("${upload.chunked.default-chunk-size-mb:8}")
+    private long defaultChunkSizeMb;
+
+    @Value("${upload.chunked.max-chunk-size-mb:64}")
+    private long maxChunkSizeMb;
+
+    @Value("${upload.chunked.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * An open session: its part file and chunk log stay open until it is completed or aborted
+     */
+    private static final class Session {
+        private final String id;
+        private final String fileName;
+        private final long size;
+        private final long chunkSize;
+        private final int chunkCount;
+        private final String sha256;
+        private final FileChannel part;
+        private final FileChannel log;
+        private final BitSet received;
+        private int writing;            // Chunks being written right now
+        private boolean closed;         // Completing, completed or aborted; no more chunks
+
+        private Session(String id, Properties properties, FileChannel part, FileChannel log, BitSet received) {
+            this.id = id;
+            this.fileName = properties.getProperty("fileName");
+            this.size = Long.parseLong(properties.getProperty("size"));
+            this.chunkSize = Long.parseLong(properties.getProperty("chunkSize"));
+            this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            this.sha256 = properties.getProperty("sha256");
+            this.part = part;
+            this.log = log;
+            this.received = received;
+        }
+
+        private synchronized void begin() {
+            if (closed) {
+                throw new IllegalStateException("Upload " + id + " is already being completed");
+            }
+            writing++;
+        }
+
+        /**
+         * The log line is written only once the chunk's data is, so a logged chunk is always complete
+         */
+        private synchronized void end(int index, boolean written) throws IOException {
+            writing--;
+            if (written && !received.get(index)) {
+                received.set(index);
+                ByteBuffer line = ByteBuffer.wrap((index + "\n").getBytes(StandardCharsets.US_ASCII));
+                while (line.hasRemaining()) {
+                    log.write(line);
+                }
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                throw new IllegalStateException("Upload " + id + " is already being completed");
+            }
+            if (writing > 0) {
+                throw new IllegalStateException(writing + " chunks of upload " + id + " are still being written");
+            }
+            int missing = chunkCount - received.cardinality();
+            if (missing > 0) {
+                throw new IllegalStateException(missing + " of " + chunkCount + " chunks are missing, first missing chunk: "
+                        + received.nextClearBit(0));
+            }
+            closed = true;
+        }
+
+        private synchronized void reopen() {
+            closed = false;
+        }
+
+        private void release() {
+            try {
+                part.close();
+                log.close();
+            } catch (IOException e) {
+                logger.warn("Could not close files of upload {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    public UploadSessionStatus create(UploadSessionRequest request) throws IOException {
+        fileUploadService.validateUpload(request.getFileName(), request.getSize());
+        if (request.getSize() <= 0) {
+            throw new IllegalArgumentException("Upload size must be positive");
+        }
+        long chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSizeMb * MB;
+        if (chunkSize > maxChunkSizeMb * MB || (chunkSize < MIN_CHUNK_SIZE && chunkSize < request.getSize())) {
+            throw new IllegalArgumentException("Chunk size must be between " + MIN_CHUNK_SIZE / 1024 + " KB and "
+                    + maxChunkSizeMb + " MB");
+        }
+        String sha256 = ArchiveIndex.normalizeSha256(request.getSha256());
+
+        sweepExpired();
+        Path directory = uploadsDirectory();
+        String id = UUID.randomUUID().toString();
+
+        Properties properties = new Properties();
+        properties.setProperty("fileName", request.getFileName());
+        properties.setProperty("size", Long.toString(request.getSize()));
+        properties.setProperty("chunkSize", Long.toString(chunkSize));
+        if (sha256 != null) {
+            properties.setProperty("sha256", sha256);
+        }
+        // Full length up front, so chunks can be written at any offset in any order
+        try (RandomAccessFile part = new RandomAccessFile(directory.resolve(id + PART_SUFFIX).toFile(), "rw")) {
+            part.setLength(request.getSize());
+        }
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(id + SESSION_SUFFIX))) {
+            properties.store(writer, "Chunked upload session");
+        }
+
+        Session session = open(id, properties);
+        sessions.put(id, session);
+        logger.info("Created upload session {} for {} ({} bytes in {} chunks of {} bytes)", id, session.fileName,
+                session.size, session.chunkCount, chunkSize);
+        return status(session);
+    }
+
+    /**
+     * Write one chunk at its offset. Sending a chunk again overwrites it, so retries are harmless.
+     *
+     * @return number of chunks received so far
+     */
+    public int writeChunk(String id, int index, InputStream body) throws IOException {
+        Session session = require(id);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("Chunk " + index + " is out of range, upload " + id + " has "
+                    + session.chunkCount + " chunks");
+        }
+        long offset = index * session.chunkSize;
+        long expected = Math.min(session.chunkSize, session.size - offset);
+
+        session.begin();
+        boolean written = false;
+        try {
+            byte[] bytes = new byte[COPY_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long length = 0;
+            int n;
+            while ((n = body.readNBytes(bytes, 0, bytes.length)) > 0) {
+                if (length + n > expected) {
+                    throw new IllegalArgumentException("Chunk " + index + " is larger than " + expected + " bytes");
+                }
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) {
+                    length += session.part.write(buffer, offset + length);
+                }
+            }
+            if (length != expected) {
+                throw new IllegalArgumentException("Chunk " + index + " has " + length + " bytes, expected " + expected);
+            }
+            written = true;
+        } finally {
+            session.end(index, written);
+        }
+        synchronized (session) {
+            return session.received.cardinality();
+        }
+    }
+
+    public UploadSessionStatus getStatus(String id) {
+        return status(require(id));
+    }
+
+    /**
+     * Verify and move the finished file into ServerZip. A checksum mismatch discards the session,
+     * since there is no telling which chunk was damaged.
+     *
+     * @param sha256 expected hash, or null to use the one given when the session was created
+     */
+    public FileUploadService.StoredArchive complete(String id, String sha256) throws IOException {
+        Session session = require(id);
+        String expected = sha256 != null && !sha256.isBlank() ? ArchiveIndex.normalizeSha256(sha256) : session.sha256;
+        session.close();
+
+        String actual;
+        try {
+            actual = sha256(session.part, session.size);
+        } catch (IOException e) {
+            session.reopen();
+            throw e;
+        }
+        if (expected != null && !expected.equals(actual)) {
+            discard(session);
+            throw new IllegalArgumentException("Checksum mismatch for " + session.fileName + ": expected " + expected
+                    + ", received " + actual + "; the upload was discarded");
+        }
+
+        session.release();
+        Path directory = uploadsDirectory();
+        FileUploadService.StoredArchive stored;
+        try {
+            stored = fileUploadService.storeArchive(directory.resolve(id + PART_SUFFIX), session.fileName, actual);
+        } catch (IOException | RuntimeException e) {
+            // Its files are closed now; a retry reopens the session from disk
+            sessions.remove(id);
+            throw e;
+        }
+        sessions.remove(id);
+        Files.deleteIfExists(directory.resolve(id + CHUNKS_SUFFIX));
+        Files.deleteIfExists(directory.resolve(id + SESSION_SUFFIX));
+
+        logger.info("Completed chunked upload {}: {} ({} bytes, sha256 {})", id, stored.filePath(), session.size, actual);
+        return stored;
+    }
+
+    public void abort(String id) throws IOException {
+        Session session = require(id);
+        synchronized (session) {
+            session.closed = true;
+        }
+        discard(session);
+        logger.info("Aborted chunked upload {} ({})", id, session.fileName);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(Session::release);
+        sessions.clear();
+    }
+
+    /**
+     * In memory, or reopened from its files after a restart
+     *
+     * @throws NoSuchElementException when there is no such session
+     */
+    private Session require(String id) {
+        if (id == null || !SESSION_ID.matcher(id).matches()) {
+            throw new NoSuchElementException("Upload session not found: " + id);
+        }
+        Session session = sessions.computeIfAbsent(id, key -> {
+            try {
+                Path directory = uploadsDirectory();
+                Path file = directory.resolve(key + SESSION_SUFFIX);
+                if (!Files.exists(file) || !Files.exists(directory.resolve(key + PART_SUFFIX))) {
+                    // No session, or its file was already stored by a complete that failed afterwards
+                    return null;
+                }
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(file)) {
+                    properties.load(reader);
+                }
+                logger.info("Reopened upload session {} for {}", key, properties.getProperty("fileName"));
+                return open(key, properties);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (session == null) {
+            throw new NoSuchElementException("Upload session not found: " + id);
+        }
+        return session;
+    }
+
+    private Session open(String id, Properties properties) throws IOException {
+        Path directory = uploadsDirectory();
+        Path chunks = directory.resolve(id + CHUNKS_SUFFIX);
+        BitSet received = new BitSet();
+        if (Files.exists(chunks)) {
+            for (String line : Files.readAllLines(chunks, StandardCharsets.US_ASCII)) {
+                try {
+                    received.set(Integer.parseInt(line.trim()));
+                } catch (NumberFormatException e) {
+                    // Torn last line from a crash; that chunk is simply sent again
+                }
+            }
+        }
+        FileChannel part = FileChannel.open(directory.resolve(id + PART_SUFFIX), StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel log = FileChannel.open(chunks, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new Session(id, properties, part, log, received);
+    }
+
+    private void discard(Session session) throws IOException {
+        session.release();
+        sessions.remove(session.id);
+        Path directory = uploadsDirectory();
+        for (String suffix : new String[] {PART_SUFFIX, CHUNKS_SUFFIX, SESSION_SUFFIX}) {
+            Files.deleteIfExists(directory.resolve(session.id + suffix));
+        }
+    }
+
+    /**
+     * Received chunks as merged byte ranges, plus the chunk numbers still to send
+     */
+    private UploadSessionStatus status(Session session) {
+        UploadSessionStatus status = new UploadSessionStatus();
+        status.setUploadId(session.id);
+        status.setFileName(session.fileName);
+        status.setSize(session.size);
+        status.setChunkSize(session.chunkSize);
+        status.setChunkCount(session.chunkCount);
+        status.setSha256(session.sha256);
+
+        List<long[]> ranges = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        long receivedBytes = 0;
+        synchronized (session) {
+            BitSet received = session.received;
+            for (int start = received.nextSetBit(0); start >= 0; start = received.nextSetBit(start)) {
+                int end = received.nextClearBit(start);
+                long from = start * session.chunkSize;
+                long to = Math.min(end * session.chunkSize, session.size);
+                ranges.add(new long[] {from, to});
+                receivedBytes += to - from;
+                start = end;
+            }
+            for (int index = received.nextClearBit(0); index < session.chunkCount; index = received.nextClearBit(index + 1)) {
+                missing.add(index);
+            }
+            status.setReceivedChunks(received.cardinality());
+        }
+        status.setReceivedRanges(ranges);
+        status.setMissingChunks(missing);
+        status.setReceivedBytes(receivedBytes);
+        return status;
+    }
+
+    /**
+     * Sessions whose files nobody touched for the TTL; a session with chunks in flight is never idle
+     */
+    private void sweepExpired() throws IOException {
+        Path directory = uploadsDirectory();
+        long cutoff = System.currentTimeMillis() - sessionTtlHours * 3600_000L;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SESSION_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                String id = name.substring(0, name.length() - SESSION_SUFFIX.length());
+                Path chunks = directory.resolve(id + CHUNKS_SUFFIX);
+                long lastActivity = Math.max(Files.getLastModifiedTime(file).toMillis(),
+                        Files.exists(chunks) ? Files.getLastModifiedTime(chunks).toMillis() : 0);
+                Session session = sessions.get(id);
+                if (lastActivity >= cutoff || (session != null && session.writing > 0)) {
+                    continue;
+                }
+                if (session != null) {
+                    session.release();
+                    sessions.remove(id);
+                }
+                for (String suffix : new String[] {PART_SUFFIX, CHUNKS_SUFFIX, SESSION_SUFFIX}) {
+                    Files.deleteIfExists(directory.resolve(id + suffix));
+                }
+                logger.info("Deleted expired upload session {}", id);
+            }
+        }
+    }
+
+    private String sha256(FileChannel part, long size) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int n = part.read(buffer, position);
+            if (n < 0) {
+                break;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += n;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path uploadsDirectory() throws IOException {
+        Path directory = fileUploadService.serverZipDirectory().resolve(UPLOADS_FOLDER);
+        Files.createDirectories(directory);
+        return directory;
+    }
+}
@@ -0,0 +1,145 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of extracted files, shared by every tree extracted under the base path
+ * through hardlinks. Files are kept as {@code <crc>-<size>/<sha256>}: the CRC and size come from the
+ * central directory for free and rule out almost every mismatch, so an entry is only hashed when a
+ * file with the same CRC and size is already stored. A match is linked instead of written; new
+ * content is written normally and then linked into the store for the next tree.
+ *
+ * Only files with an extension on the allowlist are shared. They must be files nothing edits in
+ * place (jars, native libraries); JBoss rewrites standalone.xml and friends, and a change through
+ * one link would show up in every server. The store has to live on the same volume as the
+ * extracted trees; if linking fails it switches itself off and extraction carries on normally.
+ */
+@Component
+public class ContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+    private final Path root;
+    private final Set<String> extensions;
+    private final long minSize;
+    private volatile boolean enabled;
+
+    public ContentStore(@Value("${extraction.dedupe.enabled:false}") boolean enabled,
+                        @Value("${extraction.dedupe.store-path:${server.base-path}/.content-store}") String storePath,
+                        @Value("${extraction.dedupe.extensions:jar,war,ear,rar,so,dll}") String extensions,
+                        @Value("${extraction.dedupe.min-size-kb:64}") long minSizeKb) {
+        this.enabled = enabled;
+        this.root = Paths.get(storePath);
+        this.extensions = Stream.of(extensions.split(","))
+                .map(extension -> extension.trim().toLowerCase(Locale.ROOT))
+                .filter(extension -> !extension.isEmpty())
+                .collect(Collectors.toSet());
+        this.minSize = minSizeKb * 1024;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean accepts(ZipCentralDirectory.Entry entry) {
+        if (!enabled || entry.getSize() < minSize) {
+            return false;
+        }
+        String name = entry.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') && extensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Link the target to stored content when there is a match, otherwise write it and store it
+     *
+     * @return true when the target was linked rather than written
+     */
+    public boolean write(ExtractionIo io, FileChannel archive, ZipCentralDirectory.Entry entry, Path target,
+                         ExtractionIo.Buffers buffers, LongConsumer progress) throws IOException {
+        Path bucket = root.resolve(Long.toHexString(entry.getCrc()) + "-" + entry.getSize());
+        if (Files.isDirectory(bucket)) {
+            MessageDigest digest = sha256();
+            io.digest(archive, entry, buffers, digest);
+            Path stored = bucket.resolve(HexFormat.of().formatHex(digest.digest()));
+            if (Files.exists(stored) && link(target, stored)) {
+                progress.accept(entry.getSize());
+                return true;
+            }
+        }
+
+        io.write(archive, entry, target, buffers, progress);
+        store(bucket, target);
+        return false;
+    }
+
+    private boolean link(Path target, Path stored) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, stored);
+            return true;
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            disable(e);
+            return false;
+        }
+    }
+
+    /**
+     * Hash the freshly written file (still in the page cache) and link it into the store
+     */
+    private void store(Path bucket, Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        Files.createDirectories(bucket);
+        try {
+            Files.createLink(bucket.resolve(HexFormat.of().formatHex(digest.digest())), file);
+        } catch (FileAlreadyExistsException e) {
+            // Another worker stored the same content first
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            disable(e);
+        }
+    }
+
+    private void disable(Exception e) {
+        if (enabled) {
+            enabled = false;
+            logger.warn("Disabling extraction dedupe, cannot hardlink into {} (it must be on the same volume as "
+                    + "the extracted trees): {}", root, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.DeploymentStatus;
+import com.sajid.serverManagement.dto.WaitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Deploys an artifact through the JBoss deployment scanner and reports what the server made of it.
+ * The upload is written under a hidden temporary name the scanner ignores and renamed into the
+ * deployments folder in one step, so the scanner never sees a half-written archive. A .dodeploy
+ * marker then asks for the deployment, and the markers are followed (with the {@link AdaptiveWaiter}
+ * backoff) until the scanner picks it up and answers with .deployed or .failed. Each phase is timed.
+ */
+@Service
+public class DeploymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentService.class);
+
+    private static final String UPLOADING_SUFFIX = ".uploading";
+    private static final String DEPLOYMENTS_FOLDER = "deployments";
+    private static final String STANDALONE_FOLDER = "standalone";
+    private static final String DODEPLOY = ".dodeploy";
+    private static final String DEPLOYED = ".deployed";
+    private static final String FAILED = ".failed";
+    private static final String UNDEPLOYED = ".undeployed";
+    private static final String ISDEPLOYING = ".isdeploying";
+    private static final String PENDING = ".pending";
+    private static final int MAX_TRACKED = 200;
+    private static final int MAX_FAILURE_REASON = 4000;
+
+    @Value("${server.base-path}")
+    private String basePath;
+
+    @Autowired
+    private AdaptiveWaiter adaptiveWaiter;
+
+    @Autowired
+    @Qualifier("deploymentExecutor")
+    private Executor deploymentExecutor;
+
+    // Off for scanners with auto-deploy-zipped, which deploy the renamed archive by themselves
+    @Value("${deploy.create-dodeploy:true}")
+    private boolean createDodeploy;
+
+    @Value("${deploy.pickup-timeout-seconds:60}")
+    private long pickupTimeoutSeconds;
+
+    @Value("${deploy.timeout-seconds:600}")
+    private long deployTimeoutSeconds;
+
+    @Value("${deploy.poll.initial-interval-ms:200}")
+    private long pollInitialMs;
+
+    @Value("${deploy.poll.max-interval-ms:2000}")
+    private long pollMaxMs;
+
+    // Newest last; guarded by itself
+    private final Map<String, Tracked> deployments = new LinkedHashMap<>();
+
+    /**
+     * A deployment and what is needed to follow its markers
+     */
+    private record Tracked(DeploymentStatus status, Path directory, String fileName, long previousDeployed) {
+
+        private Path marker(String suffix) {
+            return directory.resolve(fileName + suffix);
+        }
+
+        /**
+         * A .deployed marker written since this deployment was published
+         */
+        private boolean freshlyDeployed() {
+            try {
+                return Files.exists(marker(DEPLOYED))
+                        && Files.getLastModifiedTime(marker(DEPLOYED)).toMillis() != previousDeployed;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Put the artifact into the deployments folder and request its deployment; the result is
+     * followed on this thread when waiting, otherwise in the background
+     *
+     * @throws IllegalArgumentException when the folder is not the standalone/deployments folder of
+     *                                  a server under the base path, or the file name is not usable
+     */
+    public DeploymentStatus deploy(MultipartFile file, String deploymentPath, boolean wait) throws IOException {
+        Path directory = deploymentDirectory(deploymentPath);
+        String fileName = validFileName(file);
+
+        DeploymentStatus status = new DeploymentStatus(UUID.randomUUID().toString(), fileName, directory.toString());
+        Path deployed = directory.resolve(fileName + DEPLOYED);
+        Tracked tracked = new Tracked(status, directory, fileName,
+                Files.exists(deployed) ? Files.getLastModifiedTime(deployed).toMillis() : -1);
+        register(tracked);
+
+        try {
+            long phaseStart = System.currentTimeMillis();
+            Path target = place(file, directory, fileName);
+            phase(status, "upload", phaseStart);
+
+            phaseStart = System.currentTimeMillis();
+            // Outcomes of earlier deployments must not be taken for this one's
+            Files.deleteIfExists(tracked.marker(FAILED));
+            Files.deleteIfExists(tracked.marker(UNDEPLOYED));
+            if (createDodeploy && !Files.exists(tracked.marker(DODEPLOY))) {
+                Files.createFile(tracked.marker(DODEPLOY));
+            }
+            phase(status, "publish", phaseStart);
+            status.setStatus(DeploymentStatus.Status.DEPLOYING);
+            status.setMessage("Waiting for the deployment scanner");
+            logger.info("Published {} for deployment ({})", target, status.getDeploymentId());
+        } catch (IOException | RuntimeException e) {
+            finish(status, DeploymentStatus.Status.FAILED, "Could not publish " + fileName + ": " + e.getMessage());
+            throw e;
+        }
+
+        if (wait) {
+            follow(tracked);
+        } else {
+            deploymentExecutor.execute(() -> follow(tracked));
+        }
+        return status;
+    }
+
+    /**
+     * Write the artifact under a temporary name in the folder and rename it into place. The folder
+     * must be a server's deployments folder, as for {@link #deploy}.
+     */
+    public Path upload(MultipartFile file, String deploymentPath) throws IOException {
+        return place(file, deploymentDirectory(deploymentPath), validFileName(file));
+    }
+
+    public Optional<DeploymentStatus> getStatus(String deploymentId) {
+        synchronized (deployments) {
+            Tracked tracked = deployments.get(deploymentId);
+            return tracked == null ? Optional.empty() : Optional.of(tracked.status());
+        }
+    }
+
+    private Path place(MultipartFile file, Path directory, String fileName) throws IOException {
+        // Hidden and without an archive extension, so the scanner skips it while it is written;
+        // unique, so concurrent uploads of the same file do not write into each other
+        Path temp = directory.resolve("." + fileName + "." + UUID.randomUUID() + UPLOADING_SUFFIX);
+        Path target = directory.resolve(fileName);
+        try {
+            file.transferTo(temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return target;
+    }
+
+    private void follow(Tracked tracked) {
+        DeploymentStatus status = tracked.status();
+        try {
+            WaitResult pickup = adaptiveWaiter.await("deployment pickup " + tracked.fileName(),
+                    pickupTimeoutSeconds * 1000, pollInitialMs, pollMaxMs,
+                    () -> !Files.exists(tracked.marker(DODEPLOY)) || Files.exists(tracked.marker(FAILED))
+                            || tracked.freshlyDeployed());
+            status.setPhaseMs(with(status.getPhaseMs(), "scannerPickup", pickup.elapsedMs()));
+            if (!pickup.satisfied()) {
+                finish(status, DeploymentStatus.Status.TIMED_OUT, "The deployment scanner did not pick up "
+                        + tracked.fileName() + " within " + pickupTimeoutSeconds + "s; is the server running? "
+                        + "The .dodeploy marker is left for it");
+                return;
+            }
+
+            status.setMessage("Deploying");
+            WaitResult done = adaptiveWaiter.await("deployment " + tracked.fileName(),
+                    deployTimeoutSeconds * 1000, pollInitialMs, pollMaxMs,
+                    () -> Files.exists(tracked.marker(FAILED)) || (tracked.freshlyDeployed()
+                            && !Files.exists(tracked.marker(ISDEPLOYING)) && !Files.exists(tracked.marker(PENDING))));
+            status.setPhaseMs(with(status.getPhaseMs(), "deploy", done.elapsedMs()));
+
+            if (Files.exists(tracked.marker(FAILED))) {
+                status.setFailureReason(failureReason(tracked.marker(FAILED)));
+                finish(status, DeploymentStatus.Status.FAILED, tracked.fileName() + " failed to deploy");
+            } else if (done.satisfied()) {
+                finish(status, DeploymentStatus.Status.DEPLOYED, tracked.fileName() + " deployed");
+            } else {
+                finish(status, DeploymentStatus.Status.TIMED_OUT, tracked.fileName() + " was still deploying after "
+                        + deployTimeoutSeconds + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(status, DeploymentStatus.Status.TIMED_OUT, "Stopped following the deployment of " + tracked.fileName());
+        }
+    }
+
+    private void finish(DeploymentStatus status, DeploymentStatus.Status result, String message) {
+        status.setEndTime(System.currentTimeMillis());
+        status.setTotalMs(status.getEndTime() - status.getStartTime());
+        status.setMessage(message);
+        status.setStatus(result);
+        logger.info("Deployment {} of {}: {} after {} ms {}", status.getDeploymentId(), status.getFileName(), result,
+                status.getTotalMs(), status.getPhaseMs());
+    }
+
+    private void phase(DeploymentStatus status, String name, long startedAt) {
+        status.setPhaseMs(with(status.getPhaseMs(), name, System.currentTimeMillis() - startedAt));
+    }
+
+    /**
+     * A copy with the phase added, so a status being serialized is never modified underneath
+     */
+    private Map<String, Long> with(Map<String, Long> phases, String name, long ms) {
+        Map<String, Long> copy = new LinkedHashMap<>(phases);
+        copy.put(name, ms);
+        return copy;
+    }
+
+    private String failureReason(Path marker) {
+        try {
+            String reason = Files.readString(marker, StandardCharsets.UTF_8).trim();
+            return reason.length() > MAX_FAILURE_REASON ? reason.substring(0, MAX_FAILURE_REASON) : reason;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void register(Tracked tracked) {
+        synchronized (deployments) {
+            deployments.put(tracked.status().getDeploymentId(), tracked);
+            // Oldest finished ones go first
+            Iterator<Tracked> iterator = deployments.values().iterator();
+            while (deployments.size() > MAX_TRACKED && iterator.hasNext()) {
+                if (iterator.next().status().getEndTime() > 0) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * The deployments folder of a server under the base path, resolved through links so none can
+     * lead out of it
+     */
+    private Path deploymentDirectory(String deploymentPath) throws IOException {
+        Path directory = existingDirectory(deploymentPath).toRealPath();
+        Path base = Paths.get(basePath).toRealPath();
+        Path standalone = directory.getParent();
+        Path server = standalone == null ? null : standalone.getParent();
+        if (!DEPLOYMENTS_FOLDER.equals(String.valueOf(directory.getFileName()))
+                || !STANDALONE_FOLDER.equals(String.valueOf(standalone.getFileName()))
+                || server == null || !server.startsWith(base) || server.equals(base)) {
+            throw new IllegalArgumentException("Not the standalone/deployments folder of a server under " + base
+                    + ": " + deploymentPath);
+        }
+        return directory;
+    }
+
+    private Path existingDirectory(String deploymentPath) {
+        if (deploymentPath == null || deploymentPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("deploymentPath is required");
+        }
+        Path directory = Paths.get(deploymentPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Deployment folder does not exist: " + deploymentPath);
+        }
+        return directory;
+    }
+
+    private String validFileName(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File cannot be null or empty");
+        }
+        String fileName = file.getOriginalFilename();
+        if (fileName == null || fileName.trim().isEmpty() || fileName.contains("/") || fileName.contains("\\")
+                || fileName.contains("..")) {
+            throw new IllegalArgumentException("Invalid filename: " + fileName);
+        }
+        return fileName;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sajid.serverManagement.service;
+
+/**
+ * Decides which archive entries an extraction writes, by entry name (forward slashes, as stored in
+ * the archive). Directories are passed with their trailing slash.
+ */
+@FunctionalInterface
+public interface EntryFilter {
+
+    EntryFilter ALL = name -> true;
+
+    boolean accept(String name);
+}
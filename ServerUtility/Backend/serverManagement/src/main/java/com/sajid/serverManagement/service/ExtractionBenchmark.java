@@ -0,0 +1,85 @@
+package com.sajid.serverManagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Extracts a real archive once per candidate buffer size on the machine that will run the
+ * extractions, so extraction.io.buffer-size-kb can be picked from measurements on the actual disks.
+ * One untimed run warms the page cache first; each run goes into a scratch directory next to the
+ * archive that is deleted afterwards.
+ */
+@Component
+public class ExtractionBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionBenchmark.class);
+
+    @Autowired
+    private ParallelZipExtractor parallelZipExtractor;
+
+    @Autowired
+    private ExtractionIo defaultIo;
+
+    public List<Map<String, Object>> run(String zipFilePath, List<Integer> bufferSizesKb) throws IOException {
+        Path zipPath = Paths.get(zipFilePath);
+        if (!Files.exists(zipPath)) {
+            throw new IOException("ZIP file not found: " + zipFilePath);
+        }
+        Path scratch = zipPath.toAbsolutePath().getParent().resolve(".extraction-benchmark");
+
+        ExtractionIo.Settings base = defaultIo.getSettings();
+        runOnce(zipPath, scratch, new ExtractionIo(base));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int sizeKb : bufferSizesKb) {
+            ExtractionIo io = new ExtractionIo(base.withBufferSize(sizeKb * 1024));
+            long started = System.nanoTime();
+            ParallelZipExtractor.Progress progress = runOnce(zipPath, scratch, io);
+            long elapsedNanos = System.nanoTime() - started;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("buffer_size_kb", sizeKb);
+            result.put("direct_buffers", base.directBuffers());
+            result.put("stored_transfer", base.storedTransfer());
+            result.put("bytes_written", progress.getBytesWritten());
+            result.put("duration_ms", elapsedNanos / 1_000_000);
+            result.put("mb_per_second", progress.getBytesWritten() / (1024.0 * 1024) / (elapsedNanos / 1e9));
+            results.add(result);
+            logger.info("Extraction benchmark {} KB buffers: {} ms", sizeKb, elapsedNanos / 1_000_000);
+        }
+        return results;
+    }
+
+    private ParallelZipExtractor.Progress runOnce(Path zipPath, Path scratch, ExtractionIo io) throws IOException {
+        try {
+            return parallelZipExtractor.extract(zipPath, scratch, ExtractionOptions.defaults(),
+                    ParallelZipExtractor.ProgressListener.NONE, io);
+        } finally {
+            deleteRecursively(scratch);
+        }
+    }
+
+    private void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
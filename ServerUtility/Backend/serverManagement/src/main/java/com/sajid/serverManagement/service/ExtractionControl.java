@@ -0,0 +1,75 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.exception.ExtractionPausedException;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Pause and cancel switch for one extraction task. Workers call {@link #checkpoint()} between
+ * entries and between chunks of large entries. A pause ends the current run there instead of
+ * blocking, so a paused task holds no worker or scheduler thread; the task is parked and submitted
+ * again on resume, and its journal makes the new run skip what was already written.
+ */
+public class ExtractionControl {
+
+    public static final ExtractionControl NONE = new ExtractionControl();
+
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+    // Guarded by the control's monitor
+    private boolean parked;
+
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * @return true when the run had already ended for the pause, so the task must be submitted again
+     */
+    public synchronized boolean resume() {
+        paused = false;
+        boolean wasParked = parked;
+        parked = false;
+        return wasParked;
+    }
+
+    /**
+     * @return true when the run had already ended for a pause, so nothing else will finish the task
+     */
+    public synchronized boolean cancel() {
+        cancelled = true;
+        boolean wasParked = parked;
+        parked = false;
+        return wasParked;
+    }
+
+    /**
+     * Called once a run has ended for a pause
+     *
+     * @return false when the task was resumed or cancelled in the meantime and must go on now
+     */
+    public synchronized boolean park() {
+        parked = paused && !cancelled;
+        return parked;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws once cancelled or paused
+     */
+    public void checkpoint() {
+        if (cancelled) {
+            throw new CancellationException("Extraction cancelled");
+        }
+        if (paused) {
+            throw new ExtractionPausedException("Extraction paused");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Writes single ZIP entries to disk.
+ *
+ * STORED entries are copied with {@link FileChannel#transferTo} straight from their byte range in
+ * the archive, so the kernel moves the data without it passing through the heap; the CRC is then
+ * taken from the same range while it is still cached. DEFLATED entries are read and inflated
+ * through a pair of large buffers (direct by default) that are pooled and reused across entries
+ * and extractions. Every entry's size and CRC are checked against the central directory. Files
+ * above a size threshold are preallocated to their final length before writing, which avoids
+ * repeated extension of the file on NTFS.
+ */
+@Component
+public class ExtractionIo {
+
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;   // Granularity of progress for STORED copies
+
+    public record Settings(int bufferSize, boolean directBuffers, long preallocateThreshold, boolean storedTransfer) {
+        public static Settings defaults() {
+            return new Settings(1024 * 1024, true, 1024 * 1024, true);
+        }
+
+        public Settings withBufferSize(int size) {
+            return new Settings(size, directBuffers, preallocateThreshold, storedTransfer);
+        }
+    }
+
+    /**
+     * Input and output buffer used by one worker at a time
+     */
+    public static final class Buffers {
+        private final ByteBuffer input;
+        private final ByteBuffer output;
+
+        private Buffers(ByteBuffer input, ByteBuffer output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    private final Settings settings;
+    private final ConcurrentLinkedQueue<Buffers> pool = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public ExtractionIo(@Value("${extraction.io.buffer-size-kb:1024}") int bufferSizeKb,
+                        @Value("${extraction.io.direct-buffers:true}") boolean directBuffers,
+                        @Value("${extraction.io.preallocate-threshold-kb:1024}") long preallocateThresholdKb,
+                        @Value("${extraction.io.stored-transfer:true}") boolean storedTransfer) {
+        this(new Settings(bufferSizeKb * 1024, directBuffers, preallocateThresholdKb * 1024, storedTransfer));
+    }
+
+    public ExtractionIo(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public Buffers acquire() {
+        Buffers buffers = pool.poll();
+        if (buffers == null) {
+            buffers = new Buffers(allocate(), allocate());
+        }
+        return buffers;
+    }
+
+    public void release(Buffers buffers) {
+        pool.offer(buffers);
+    }
+
+    private ByteBuffer allocate() {
+        return settings.directBuffers()
+                ? ByteBuffer.allocateDirect(settings.bufferSize())
+                : ByteBuffer.allocate(settings.bufferSize());
+    }
+
+    /**
+     * Write one file entry; progress receives the number of bytes written after every chunk
+     */
+    public void write(FileChannel archive, ZipCentralDirectory.Entry entry, Path target, Buffers buffers,
+                      LongConsumer progress) throws IOException {
+        if (entry.isEncrypted()) {
+            throw new ZipException("Encrypted entries are not supported: " + entry.getName());
+        }
+        // A previous extraction may have hardlinked this path to the content store; writing
+        // through the link would change every tree sharing it
+        Files.deleteIfExists(target);
+
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+            file.setLength(entry.getSize() >= settings.preallocateThreshold() ? entry.getSize() : 0);
+            decode(archive, entry, file.getChannel(), buffers, progress);
+        }
+        // Keep the archive's timestamp, incremental extraction compares against it
+        if (entry.getLastModified() > 0) {
+            Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getLastModified()));
+        }
+    }
+
+    /**
+     * Feed the entry's uncompressed content to a digest without writing anything
+     */
+    public void digest(FileChannel archive, ZipCentralDirectory.Entry entry, Buffers buffers, MessageDigest digest) throws IOException {
+        if (entry.isEncrypted()) {
+            throw new ZipException("Encrypted entries are not supported: " + entry.getName());
+        }
+        decode(archive, entry, new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int n = src.remaining();
+                digest.update(src);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, buffers, bytes -> { });
+    }
+
+    private void decode(FileChannel archive, ZipCentralDirectory.Entry entry, WritableByteChannel out, Buffers buffers,
+                        LongConsumer progress) throws IOException {
+        long dataOffset = ZipCentralDirectory.dataOffset(archive, entry);
+        switch (entry.getMethod()) {
+            case ZipCentralDirectory.STORED -> {
+                if (entry.getCompressedSize() != entry.getSize()) {
+                    throw new ZipException("Size mismatch for stored entry " + entry.getName() + ": "
+                            + entry.getCompressedSize() + " bytes in the archive, expected " + entry.getSize());
+                }
+                long crc = settings.storedTransfer() && out instanceof FileChannel
+                        ? transfer(archive, dataOffset, entry, out, buffers, progress)
+                        : copy(archive, dataOffset, entry, out, buffers, progress);
+                if (crc != entry.getCrc()) {
+                    throw new ZipException("CRC mismatch for entry: " + entry.getName());
+                }
+            }
+            case ZipCentralDirectory.DEFLATED -> inflate(archive, dataOffset, entry, out, buffers, progress);
+            default -> throw new ZipException("Unsupported compression method " + entry.getMethod()
+                    + " for entry: " + entry.getName());
+        }
+    }
+
+    /**
+     * The copied bytes never reach the heap, so the CRC is taken by reading each transferred chunk
+     * back from the archive while it is still in the page cache
+     *
+     * @return CRC-32 of the entry's data
+     */
+    private long transfer(FileChannel archive, long position, ZipCentralDirectory.Entry entry, WritableByteChannel out,
+                          Buffers buffers, LongConsumer progress) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = buffers.input;
+        long remaining = entry.getSize();
+        while (remaining > 0) {
+            long n = archive.transferTo(position, Math.min(remaining, TRANSFER_CHUNK), out);
+            if (n <= 0) {
+                throw new EOFException("Unexpected end of data for entry: " + entry.getName());
+            }
+            for (long read = 0; read < n; ) {
+                buffer.clear();
+                if (n - read < buffer.capacity()) {
+                    buffer.limit((int) (n - read));
+                }
+                int r = archive.read(buffer, position + read);
+                if (r < 0) {
+                    throw new EOFException("Unexpected end of data for entry: " + entry.getName());
+                }
+                buffer.flip();
+                crc.update(buffer);
+                read += r;
+            }
+            position += n;
+            remaining -= n;
+            progress.accept(n);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @return CRC-32 of the entry's data
+     */
+    private long copy(FileChannel archive, long position, ZipCentralDirectory.Entry entry, WritableByteChannel out,
+                      Buffers buffers, LongConsumer progress) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = buffers.input;
+        long remaining = entry.getSize();
+        while (remaining > 0) {
+            buffer.clear();
+            if (remaining < buffer.capacity()) {
+                buffer.limit((int) remaining);
+            }
+            int n = archive.read(buffer, position);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of data for entry: " + entry.getName());
+            }
+            buffer.flip();
+            buffer.mark();
+            crc.update(buffer);
+            buffer.reset();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            position += n;
+            remaining -= n;
+            progress.accept(n);
+        }
+        return crc.getValue();
+    }
+
+    private void inflate(FileChannel archive, long position, ZipCentralDirectory.Entry entry, WritableByteChannel out,
+                         Buffers buffers, LongConsumer progress) throws IOException {
+        ByteBuffer input = buffers.input;
+        ByteBuffer output = buffers.output;
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        long remaining = entry.getCompressedSize();
+        long written = 0;
+        boolean paddingSupplied = false;
+
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    input.clear();
+                    if (remaining > 0) {
+                        if (remaining < input.capacity()) {
+                            input.limit((int) remaining);
+                        }
+                        int n = archive.read(input, position);
+                        if (n < 0) {
+                            throw new EOFException("Unexpected end of data for entry: " + entry.getName());
+                        }
+                        position += n;
+                        remaining -= n;
+                    } else if (!paddingSupplied) {
+                        // Raw inflate may ask for one byte past the end of the stream, as ZipFile also provides
+                        input.put((byte) 0);
+                        paddingSupplied = true;
+                    } else {
+                        throw new EOFException("Truncated deflate stream for entry: " + entry.getName());
+                    }
+                    input.flip();
+                    inflater.setInput(input);
+                }
+
+                output.clear();
+                int n = inflater.inflate(output);
+                if (n == 0 && inflater.needsDictionary()) {
+                    throw new ZipException("Preset dictionary not supported for entry: " + entry.getName());
+                }
+                output.flip();
+                output.mark();
+                crc.update(output);
+                output.reset();
+                while (output.hasRemaining()) {
+                    out.write(output);
+                }
+                written += n;
+                if (n > 0) {
+                    progress.accept(n);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupt deflate data for entry " + entry.getName() + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+
+        if (written != entry.getSize()) {
+            throw new ZipException("Size mismatch for entry " + entry.getName() + ": expected " + entry.getSize()
+                    + " bytes, inflated " + written);
+        }
+        if (crc.getValue() != entry.getCrc()) {
+            throw new ZipException("CRC mismatch for entry: " + entry.getName());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Append-only list of the entries an unfinished extraction has completed, in the manifest's line
+ * format. It survives a cancel, a failure or a crash; the next extraction into the same directory
+ * skips what it lists, and it is removed once an extraction finishes and the manifest is written.
+ * Flushed at most once a second, so a crash costs at most the last second of entries.
+ */
+final class ExtractionJournal implements Closeable {
+
+    static final String FILE_NAME = ".extraction-journal";
+
+    private static final long FLUSH_INTERVAL_MS = 1000;
+
+    private final BufferedWriter writer;
+    private long lastFlush = System.currentTimeMillis();
+
+    private ExtractionJournal(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    static Map<String, ExtractionManifest.Entry> load(Path root) throws IOException {
+        return ExtractionManifest.read(root.resolve(FILE_NAME));
+    }
+
+    static ExtractionJournal open(Path root) throws IOException {
+        return new ExtractionJournal(Files.newBufferedWriter(root.resolve(FILE_NAME), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+    }
+
+    static void delete(Path root) throws IOException {
+        Files.deleteIfExists(root.resolve(FILE_NAME));
+    }
+
+    synchronized void record(ZipCentralDirectory.Entry entry) throws IOException {
+        writer.write(ExtractionManifest.line(entry));
+        long now = System.currentTimeMillis();
+        if (now - lastFlush >= FLUSH_INTERVAL_MS) {
+            writer.flush();
+            lastFlush = now;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record of the file entries an extraction wrote, kept as {@value #FILE_NAME} in the extraction
+ * root: one line per file with CRC-32, size, entry time and name. The next incremental extraction
+ * compares the archive's central directory against it.
+ */
+public final class ExtractionManifest {
+
+    public static final String FILE_NAME = ".extraction-manifest";
+
+    public record Entry(long crc, long size, long lastModified) {
+        static Entry of(ZipCentralDirectory.Entry entry) {
+            return new Entry(entry.getCrc(), entry.getSize(), entry.getLastModified());
+        }
+    }
+
+    private ExtractionManifest() {}
+
+    /**
+     * @return entries by name, empty when there is no manifest
+     */
+    public static Map<String, Entry> load(Path root) throws IOException {
+        return read(root.resolve(FILE_NAME));
+    }
+
+    /**
+     * Lines that do not parse are skipped, so a torn last line from a crash is harmless
+     */
+    static Map<String, Entry> read(Path file) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 4);
+                if (fields.length == 4) {
+                    try {
+                        entries.put(fields[3], new Entry(Long.parseLong(fields[0], 16), Long.parseLong(fields[1]),
+                                Long.parseLong(fields[2])));
+                    } catch (NumberFormatException e) {
+                        // Partially written line
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Written to a temporary file and moved into place, so a crash never leaves a truncated manifest
+     */
+    public static void write(Path root, Collection<ZipCentralDirectory.Entry> files) throws IOException {
+        write(root, files, Map.of());
+    }
+
+    /**
+     * @param retained records carried over from the previous manifest, for files this run did not extract
+     */
+    public static void write(Path root, Collection<ZipCentralDirectory.Entry> files, Map<String, Entry> retained) throws IOException {
+        Path temporary = root.resolve(FILE_NAME + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (ZipCentralDirectory.Entry entry : files) {
+                writer.write(line(entry));
+            }
+            for (Map.Entry<String, Entry> recorded : retained.entrySet()) {
+                Entry entry = recorded.getValue();
+                writer.write(Long.toHexString(entry.crc()) + '\t' + entry.size() + '\t' + entry.lastModified() + '\t'
+                        + recorded.getKey() + '\n');
+            }
+        }
+        Files.move(temporary, root.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Records of a run that had no central directory to take them from (tarballs)
+     */
+    public static void write(Path root, Map<String, Entry> entries) throws IOException {
+        write(root, List.of(), entries);
+    }
+
+    static String line(ZipCentralDirectory.Entry entry) {
+        return Long.toHexString(entry.getCrc()) + '\t' + entry.getSize() + '\t' + entry.getLastModified() + '\t'
+                + entry.getName() + '\n';
+    }
+}
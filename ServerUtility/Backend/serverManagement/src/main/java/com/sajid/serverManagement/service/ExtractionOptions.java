@@ -0,0 +1,65 @@
+package com.sajid.serverManagement.service;
+
+/**
+ * Per-extraction switches; defaults reproduce a plain full extraction
+ */
+public class ExtractionOptions {
+    private boolean incremental;        // Skip entries whose CRC, size and time match the previous extraction
+    private boolean deleteOrphans;      // Remove files a previous extraction wrote that are no longer in the archive
+    private ExtractionControl control = ExtractionControl.NONE;
+    private EntryFilter entryFilter = EntryFilter.ALL;
+    private ContentStore contentStore;  // Set by the pipeline when dedupe is enabled
+    private ExtractionScheduler.Priority priority = ExtractionScheduler.Priority.INTERACTIVE;   // Only used by async tasks
+
+    public static ExtractionOptions defaults() {
+        return new ExtractionOptions();
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isDeleteOrphans() {
+        return deleteOrphans;
+    }
+
+    public void setDeleteOrphans(boolean deleteOrphans) {
+        this.deleteOrphans = deleteOrphans;
+    }
+
+    public ExtractionControl getControl() {
+        return control;
+    }
+
+    public void setControl(ExtractionControl control) {
+        this.control = control;
+    }
+
+    public ExtractionScheduler.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(ExtractionScheduler.Priority priority) {
+        this.priority = priority;
+    }
+
+    public EntryFilter getEntryFilter() {
+        return entryFilter;
+    }
+
+    public void setEntryFilter(EntryFilter entryFilter) {
+        this.entryFilter = entryFilter;
+    }
+
+    public ContentStore getContentStore() {
+        return contentStore;
+    }
+
+    public void setContentStore(ContentStore contentStore) {
+        this.contentStore = contentStore;
+    }
+}
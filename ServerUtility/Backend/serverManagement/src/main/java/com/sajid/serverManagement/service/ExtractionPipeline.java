@@ -0,0 +1,388 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.ExtractionResult;
+import com.sajid.serverManagement.util.ArchiveFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * The one way an archive on disk gets extracted. Synchronous requests, async tasks, standby
+ * instances and the streaming fallback all come through here, so they share the same stages:
+ * the archive is read through its central directory, entries pass the {@link EntryFilter} from the
+ * options, the survivors are written by {@link ExtractionIo} on the parallel workers, and progress
+ * goes to the caller's listener. Tarballs have no central directory and are read as one stream by
+ * {@link TarExtractor} instead, with the same filter and listener. Every caller gets the same
+ * {@link ExtractionResult}.
+ *
+ * Full extractions are staged: they are written into a hidden sibling {@code .<name>.staging} and
+ * published by renaming it over the target, so readers see either the old tree or the complete new
+ * one. Files of the old tree that did not come from an archive (its manifest does not list them:
+ * logs, standalone/data, deployments) are hard-linked into the new tree while the old one is still
+ * in place; whatever the old tree gains after that is moved across once the new tree is published,
+ * and the rest of the old tree is deleted in the background. A failed or cancelled run leaves the
+ * target untouched and its staging directory, with the journal, for the next attempt at the same
+ * archive to resume; staging left by a different archive is cleared first. A target a server is
+ * running from is never swapped: the run is refused before it starts and again before publishing.
+ * Incremental and filtered runs, and targets without a manifest, are extracted in place.
+ */
+@Component
+public class ExtractionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionPipeline.class);
+
+    private static final String STAGING_SUFFIX = ".staging";
+    private static final String OLD_SUFFIX = ".old-";
+    // Identifies the archive a staging directory is being filled from
+    private static final String SOURCE_FILE = ".extraction-source";
+
+    // Targets with an extraction running; a second one into the same folder would interleave files
+    private final Set<Path> activeTargets = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private ParallelZipExtractor parallelZipExtractor;
+
+    @Autowired
+    private TarExtractor tarExtractor;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private ArchiveIndex archiveIndex;
+
+    @Autowired
+    private ServerStatusService serverStatusService;
+
+    @Autowired
+    @Qualifier("extractionCleanupExecutor")
+    private Executor cleanupExecutor;
+
+    @Value("${extraction.staging.enabled:true}")
+    private boolean stagingEnabled;
+
+    /**
+     * Default target: a folder named like the archive without its extension ("app.tar.gz" gives "app"), next to it
+     */
+    public Path defaultTarget(Path archive) {
+        return archive.toAbsolutePath().getParent().resolve(ArchiveFormat.baseName(archive.getFileName().toString()));
+    }
+
+    public ExtractionResult extract(Path archive, ExtractionOptions options,
+                                    ParallelZipExtractor.ProgressListener listener) throws IOException {
+        return extract(archive, defaultTarget(archive), options, listener);
+    }
+
+    /**
+     * @throws IllegalStateException when another extraction into the same target is running
+     */
+    public ExtractionResult extract(Path archive, Path target, ExtractionOptions options,
+                                    ParallelZipExtractor.ProgressListener listener) throws IOException {
+        if (!Files.exists(archive)) {
+            throw new IOException("Archive not found: " + archive);
+        }
+        Path root = reserve(target);
+        try {
+            return run(archive, root, options, listener);
+        } finally {
+            release(root);
+        }
+    }
+
+    /**
+     * Hold a folder for a writer outside the pipeline (the streaming extractor), so no extraction
+     * stages and swaps it underneath; every reserve must be followed by a {@link #release}
+     *
+     * @return the normalized folder, to release later
+     * @throws IllegalStateException when an extraction into the folder is running
+     */
+    public Path reserve(Path target) {
+        Path root = target.toAbsolutePath().normalize();
+        if (!activeTargets.add(root)) {
+            throw new IllegalStateException("An extraction into " + root + " is already running");
+        }
+        return root;
+    }
+
+    public void release(Path root) {
+        activeTargets.remove(root);
+    }
+
+    private ExtractionResult run(Path archive, Path target, ExtractionOptions options,
+                                 ParallelZipExtractor.ProgressListener listener) throws IOException {
+        boolean staged = isStaged(target, options);
+        Path destination = staged ? target.resolveSibling("." + target.getFileName() + STAGING_SUFFIX) : target;
+        if (staged) {
+            // Fails before the extraction rather than after it
+            ensureNotRunning(target);
+            prepareStaging(destination, archive);
+        }
+        if (!Files.exists(destination)) {
+            Files.createDirectories(destination);
+            logger.info("Created extraction directory: {}", destination);
+        }
+
+        if (contentStore.isEnabled()) {
+            options.setContentStore(contentStore);
+        }
+        if (!staged) {
+            // Changed in place from here on, even if the run fails
+            archiveIndex.forgetExtraction(target);
+        }
+
+        long started = System.currentTimeMillis();
+        ArchiveFormat format = ArchiveFormat.of(archive.getFileName().toString());
+        ParallelZipExtractor.Progress progress = format != null && format.isTar()
+                ? tarExtractor.extract(archive, format, destination, options, listener)
+                : parallelZipExtractor.extract(archive, destination, options, listener);
+        if (staged) {
+            // Checked again, it may have been started meanwhile; the staging stays for the next attempt
+            ensureNotRunning(target);
+            Files.deleteIfExists(destination.resolve(SOURCE_FILE));
+            publish(destination, target);
+        }
+        if (options.getEntryFilter() == EntryFilter.ALL) {
+            archiveIndex.recordExtraction(archive, target);
+        }
+        long durationMs = Math.max(1, System.currentTimeMillis() - started);
+
+        ExtractionResult result = new ExtractionResult();
+        result.setArchivePath(archive.toString());
+        result.setExtractionPath(target.toString());
+        result.setStaged(staged);
+        result.setTotalEntries(progress.getTotalEntries());
+        result.setFilesWritten(progress.getFilesWritten());
+        result.setTotalBytes(progress.getTotalBytes());
+        result.setBytesWritten(progress.getBytesWritten());
+        result.setUnchangedEntries(progress.getUnchangedEntries());
+        result.setResumedEntries(progress.getResumedEntries());
+        result.setDeletedOrphans(progress.getDeletedOrphans());
+        result.setSkippedEntries(progress.getSkippedEntries());
+        result.setSkippedBytes(progress.getSkippedBytes());
+        result.setSkippedCompressedBytes(progress.getSkippedCompressedBytes());
+        result.setLinkedEntries(progress.getLinkedEntries());
+        result.setLinkedBytes(progress.getLinkedBytes());
+        result.setDurationMs(durationMs);
+        result.setThroughputMbPerSecond(progress.getBytesWritten() * 1000.0 / durationMs / (1024 * 1024));
+
+        logger.info("Successfully extracted archive: {} to directory: {} ({} MB/s)", archive, target,
+                String.format("%.1f", result.getThroughputMbPerSecond()));
+        return result;
+    }
+
+    /**
+     * Publishing renames the old tree away and deletes it, which must not happen under a running JBoss
+     *
+     * @throws IllegalStateException when a server is running from the target
+     */
+    private void ensureNotRunning(Path target) {
+        if (!Files.isDirectory(target)) {
+            return;
+        }
+        Long pid = serverStatusService.findProcessRunningFrom(target);
+        if (pid != null) {
+            throw new IllegalStateException("A server is running from " + target + " (PID " + pid
+                    + "); stop it before extracting over it");
+        }
+    }
+
+    private boolean isStaged(Path target, ExtractionOptions options) {
+        if (!stagingEnabled || options.isIncremental() || options.getEntryFilter() != EntryFilter.ALL) {
+            return false;
+        }
+        if (Files.isDirectory(target) && !Files.exists(target.resolve(ExtractionManifest.FILE_NAME)) && !isEmpty(target)) {
+            logger.info("{} was not created by an extraction, extracting in place", target);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Staging left by a run of another archive (or another build of it) would publish that run's
+     * files, so it is cleared; staging of the same archive is kept for its journal
+     */
+    private void prepareStaging(Path staging, Path archive) throws IOException {
+        String source = archive.toAbsolutePath().normalize() + "\n" + Files.size(archive) + "\n"
+                + Files.getLastModifiedTime(archive).toMillis();
+        Path sourceFile = staging.resolve(SOURCE_FILE);
+        if (Files.exists(staging) && !(Files.exists(sourceFile)
+                && source.equals(Files.readString(sourceFile, StandardCharsets.UTF_8)))) {
+            logger.info("Clearing {}, it was staged from another archive", staging);
+            deleteRecursively(staging);
+        }
+        Files.createDirectories(staging);
+        Files.writeString(sourceFile, source, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Link the old tree's runtime files into the staged tree, then swap the trees with two renames;
+     * the target is missing only between them. On Windows the first rename fails while a server has
+     * files open in the old tree; the links are then removed and nothing else has changed.
+     */
+    private void publish(Path staging, Path target) throws IOException {
+        if (!Files.exists(target)) {
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Published staged extraction {}", target);
+            deleteOldTrees(target);
+            return;
+        }
+
+        Set<String> archived = ExtractionManifest.load(target).keySet();
+        List<Path> carried = new ArrayList<>();
+        Path old = target.resolveSibling("." + target.getFileName() + OLD_SUFFIX + System.currentTimeMillis());
+        try {
+            carryOver(target, staging, archived, carried, true);
+            Files.move(target, old, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            removeCarried(carried);
+            throw new IOException("Cannot replace " + target + ", it is in use (stop the server using it and "
+                    + "extract again, the staged files are kept): " + e.getMessage(), e);
+        }
+        try {
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Put the old tree back rather than leave no tree at all
+            Files.move(old, target, StandardCopyOption.ATOMIC_MOVE);
+            removeCarried(carried);
+            throw e;
+        }
+        logger.info("Published staged extraction {}", target);
+
+        // Files the old tree gained after the links were made, e.g. a log rolled over meanwhile
+        try {
+            carryOver(old, target, archived, new ArrayList<>(), false);
+        } catch (IOException e) {
+            logger.warn("Could not move late runtime files from {} into {}, keeping it: {}", old, target, e.getMessage());
+            return;
+        }
+        deleteOldTrees(target);
+    }
+
+    /**
+     * Bring everything an archive did not produce from one tree into the other: folders and files
+     * neither the old manifest nor the destination list. Files are hard-linked (copied where links
+     * are not supported) or moved; what is created in the destination is added to carried, parents
+     * before children.
+     */
+    private void carryOver(Path from, Path to, Set<String> archived, List<Path> carried, boolean link) throws IOException {
+        Set<String> archivedFolders = new HashSet<>();
+        for (String name : archived) {
+            for (int slash = name.indexOf('/'); slash > 0; slash = name.indexOf('/', slash + 1)) {
+                archivedFolders.add(name.substring(0, slash));
+            }
+        }
+        Files.walkFileTree(from, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                String name = from.relativize(dir).toString().replace('\\', '/');
+                // Runtime folders come along even when empty; archive folders only for the files they hold
+                if (!dir.equals(from) && !archivedFolders.contains(name)) {
+                    createDirectories(to.resolve(name), carried);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                String name = from.relativize(file).toString().replace('\\', '/');
+                Path copy = to.resolve(name);
+                if (archived.contains(name) || Files.exists(copy, LinkOption.NOFOLLOW_LINKS)
+                        || name.startsWith(".extraction-")) {
+                    return FileVisitResult.CONTINUE;
+                }
+                createDirectories(copy.getParent(), carried);
+                if (!link) {
+                    Files.move(file, copy, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    try {
+                        Files.createLink(copy, file);
+                    } catch (UnsupportedOperationException | IOException e) {
+                        Files.copy(file, copy, StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                }
+                carried.add(copy);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Create the folder and missing parents, recording each one created, outermost first
+     */
+    private void createDirectories(Path dir, List<Path> created) throws IOException {
+        if (Files.isDirectory(dir)) {
+            return;
+        }
+        createDirectories(dir.getParent(), created);
+        Files.createDirectory(dir);
+        created.add(dir);
+    }
+
+    /**
+     * Undo a carry-over into staging: the originals never left the old tree
+     */
+    private void removeCarried(List<Path> carried) {
+        for (int i = carried.size() - 1; i >= 0; i--) {
+            try {
+                Files.deleteIfExists(carried.get(i));
+            } catch (IOException e) {
+                logger.warn("Could not remove carried-over {}: {}", carried.get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Old trees of this target, including ones left by a crash, are deleted off the request thread
+     */
+    private void deleteOldTrees(Path target) {
+        cleanupExecutor.execute(() -> {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(target.getParent(),
+                    "." + target.getFileName() + OLD_SUFFIX + "*")) {
+                for (Path old : stream) {
+                    deleteRecursively(old);
+                    logger.info("Deleted replaced extraction tree {}", old);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete replaced extraction trees of {}: {}", target, e.getMessage());
+            }
+        });
+    }
+
+    private void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private boolean isEmpty(Path dir) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            return !stream.iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.exception.ExtractionQueueFullException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs extraction tasks on a fixed number of slots. Waiting tasks are ordered by priority class and
+ * then by arrival, so an operator's extraction overtakes queued bulk work but never interrupts a
+ * running one. Once max-queued tasks are waiting, new submissions are refused with
+ * {@link ExtractionQueueFullException} instead of queueing without bound.
+ *
+ * Each task mostly waits on the zip worker pool, so with virtual-threads enabled the slots run on
+ * virtual threads when the JVM has them (Java 21+); otherwise platform threads are used.
+ */
+@Component
+public class ExtractionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionScheduler.class);
+
+    public enum Priority {
+        INTERACTIVE,    // Started by an operator who is waiting for it
+        BACKGROUND      // Bulk jobs and tasks resumed after a restart
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int concurrency;
+    private final int maxQueued;
+    private final boolean virtualThreads;
+    private volatile boolean shuttingDown;
+
+    @Autowired
+    public ExtractionScheduler(@Value("${extraction.scheduler.concurrency:2}") int concurrency,
+                               @Value("${extraction.scheduler.max-queued:100}") int maxQueued,
+                               @Value("${extraction.scheduler.virtual-threads:false}") boolean virtualThreads) {
+        this.concurrency = Math.max(1, concurrency);
+        this.maxQueued = maxQueued;
+        ThreadFactory threadFactory = virtualThreads ? virtualThreadFactory() : null;
+        this.virtualThreads = threadFactory != null;
+        if (threadFactory == null) {
+            threadFactory = new CustomizableThreadFactory("extraction-");
+        }
+        // An unbounded queue never grows the pool past its core size, so core == max
+        this.executor = new ThreadPoolExecutor(this.concurrency, this.concurrency, 60, TimeUnit.SECONDS,
+                queue, threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Executor for one task; {@link java.util.concurrent.CompletableFuture#supplyAsync} hands it the task's body
+     *
+     * @param admit false to bypass the queue limit, for tasks that were already accepted once
+     */
+    public Executor executorFor(String taskId, Priority priority, boolean admit) {
+        return command -> submit(new PrioritizedTask(taskId, priority, sequence.incrementAndGet(), command), admit);
+    }
+
+    private synchronized void submit(PrioritizedTask task, boolean admit) {
+        int waiting = queue.size();
+        if (admit && waiting >= maxQueued && executor.getActiveCount() >= concurrency) {
+            throw new ExtractionQueueFullException("Extraction queue is full (" + waiting + " tasks waiting)",
+                    waiting, retryAfterSeconds(waiting));
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * 1-based place among waiting tasks, or 0 when the task is running or unknown
+     */
+    public int queuePosition(String taskId) {
+        Object[] waiting = queue.toArray();
+        Arrays.sort(waiting);
+        for (int i = 0; i < waiting.length; i++) {
+            if (((PrioritizedTask) waiting[i]).taskId.equals(taskId)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("concurrency", concurrency);
+        metrics.put("virtual_threads", virtualThreads);
+        metrics.put("running", executor.getActiveCount());
+        metrics.put("queued", queue.size());
+        metrics.put("max_queued", maxQueued);
+        metrics.put("completed", executor.getCompletedTaskCount());
+        return metrics;
+    }
+
+    /**
+     * Rough hint: one queue slot frees up roughly every minute per running slot
+     */
+    private int retryAfterSeconds(int waiting) {
+        return Math.max(30, Math.min(600, 60 * (waiting - maxQueued + 1) / concurrency));
+    }
+
+    /**
+     * True once the application is stopping; tasks failing from then on were interrupted, not broken
+     */
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    /**
+     * Published before any executor is shut down, so a task whose zip workers are interrupted
+     * first is already known to be stopping
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void contextClosing() {
+        shuttingDown = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Thread.ofVirtual() only exists from Java 21; the build targets 17, so it is looked up reflectively
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "extraction-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not available on Java {}, using platform threads for extraction tasks",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final String taskId;
+        private final Priority priority;
+        private final long sequence;
+        private final Runnable command;
+
+        private PrioritizedTask(String taskId, Priority priority, long sequence, Runnable command) {
+            this.taskId = taskId;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.sajid.serverManagement.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sajid.serverManagement.dto.ExtractionStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds extraction task statuses. Finished tasks are evicted after a TTL, and the oldest finished
+ * ones go first once the store exceeds its size bound; running and queued tasks are never evicted.
+ * Finished tasks are also appended as one JSON line to a history file in the data directory, so
+ * their results can still be looked up after eviction or a restart. The history file is compacted
+ * to the newest entries when it grows to twice its limit.
+ */
+@Component
+public class ExtractionTaskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionTaskStore.class);
+
+    private static final long SWEEP_INTERVAL_MS = 30_000;
+    private static final String HISTORY_FILE = "extraction-history.jsonl";
+
+    private final ConcurrentHashMap<String, ExtractionStatus> tasks = new ConcurrentHashMap<>();
+    // Newest last; guarded by the store's monitor
+    private final LinkedHashMap<String, ExtractionStatus> history = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final AtomicLong evictedByTtl = new AtomicLong();
+    private final AtomicLong evictedBySize = new AtomicLong();
+    private final AtomicLong removedExplicitly = new AtomicLong();
+    private final AtomicLong historyWrites = new AtomicLong();
+    private final AtomicLong historyCompactions = new AtomicLong();
+    private volatile long lastSweep;
+    private int historyLines;
+
+    @Value("${extraction.tasks.max-size:500}")
+    private int maxSize;
+
+    @Value("${extraction.tasks.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${extraction.tasks.history.enabled:true}")
+    private boolean historyEnabled;
+
+    @Value("${extraction.tasks.history.max-entries:1000}")
+    private int historyMaxEntries;
+
+    @Value("${app.users.directory:./data}")
+    private String dataDirectory;
+
+    @PostConstruct
+    public void loadHistory() {
+        if (!historyEnabled || !Files.exists(historyFile())) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(historyFile(), StandardCharsets.UTF_8)) {
+            String line;
+            synchronized (this) {
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        ExtractionStatus status = objectMapper.readValue(line, ExtractionStatus.class);
+                        history.remove(status.getTaskId());
+                        history.put(status.getTaskId(), status);
+                        historyLines++;
+                    } catch (IOException e) {
+                        // Torn line from a crash
+                    }
+                }
+                trimHistory();
+            }
+            logger.info("Loaded {} extraction tasks from history", history.size());
+        } catch (IOException e) {
+            logger.warn("Could not read extraction history {}: {}", historyFile(), e.getMessage());
+        }
+    }
+
+    public void put(ExtractionStatus status) {
+        tasks.put(status.getTaskId(), status);
+        sweep();
+    }
+
+    /**
+     * Live status first, then the history of finished tasks
+     */
+    public ExtractionStatus get(String taskId) {
+        sweep();
+        ExtractionStatus status = tasks.get(taskId);
+        if (status != null) {
+            return status;
+        }
+        synchronized (this) {
+            return history.get(taskId);
+        }
+    }
+
+    /**
+     * Called once a task reaches a terminal state
+     */
+    public void finished(ExtractionStatus status) {
+        if (!historyEnabled) {
+            return;
+        }
+        synchronized (this) {
+            history.remove(status.getTaskId());
+            history.put(status.getTaskId(), status);
+            trimHistory();
+            try {
+                Files.createDirectories(historyFile().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(historyFile(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(objectMapper.writeValueAsString(historyRecord(status)));
+                    writer.newLine();
+                }
+                historyWrites.incrementAndGet();
+                if (++historyLines > 2 * historyMaxEntries) {
+                    compactHistory();
+                }
+            } catch (IOException e) {
+                logger.warn("Could not append extraction task {} to history: {}", status.getTaskId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Forget the task entirely: the live entry, its history entry and its lines in the history file
+     */
+    public ExtractionStatus remove(String taskId) {
+        ExtractionStatus removed = tasks.remove(taskId);
+        synchronized (this) {
+            ExtractionStatus historical = history.remove(taskId);
+            if (historical != null) {
+                try {
+                    compactHistory();
+                } catch (IOException e) {
+                    logger.warn("Could not remove extraction task {} from history: {}", taskId, e.getMessage());
+                }
+                removed = removed != null ? removed : historical;
+            }
+        }
+        if (removed != null) {
+            removedExplicitly.incrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Drop a task that was never accepted, without counting it as a removal
+     */
+    public void discard(String taskId) {
+        tasks.remove(taskId);
+    }
+
+    /**
+     * Newest first, live tasks merged with history
+     */
+    public List<ExtractionStatus> list(ExtractionStatus.Status filter, int page, int size) {
+        return recent(filter).stream()
+                .skip((long) page * size)
+                .limit(size)
+                .toList();
+    }
+
+    public int count(ExtractionStatus.Status filter) {
+        return recent(filter).size();
+    }
+
+    private List<ExtractionStatus> recent(ExtractionStatus.Status filter) {
+        sweep();
+        Map<String, ExtractionStatus> merged = new HashMap<>();
+        synchronized (this) {
+            merged.putAll(history);
+        }
+        merged.putAll(tasks);
+        return merged.values().stream()
+                .filter(status -> filter == null || status.getStatus() == filter)
+                .sorted(Comparator.comparingLong(ExtractionStatus::getStartTime).reversed())
+                .toList();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("in_memory", tasks.size());
+        metrics.put("active", tasks.values().stream().filter(status -> !isFinished(status)).count());
+        metrics.put("max_size", maxSize);
+        metrics.put("ttl_minutes", ttlMinutes);
+        metrics.put("evicted_ttl", evictedByTtl.get());
+        metrics.put("evicted_size", evictedBySize.get());
+        metrics.put("removed_explicitly", removedExplicitly.get());
+        synchronized (this) {
+            metrics.put("history_enabled", historyEnabled);
+            metrics.put("history_size", history.size());
+        }
+        metrics.put("history_writes", historyWrites.get());
+        metrics.put("history_compactions", historyCompactions.get());
+        return metrics;
+    }
+
+    /**
+     * Nothing schedules this; it runs from reads and writes at most every 30 s, or at once when over the size bound
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        if (tasks.size() <= maxSize && now - lastSweep < SWEEP_INTERVAL_MS) {
+            return;
+        }
+        lastSweep = now;
+
+        long cutoff = now - ttlMinutes * 60_000;
+        Iterator<ExtractionStatus> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            ExtractionStatus status = iterator.next();
+            if (isFinished(status) && status.getEndTime() < cutoff) {
+                iterator.remove();
+                evictedByTtl.incrementAndGet();
+            }
+        }
+
+        int excess = tasks.size() - maxSize;
+        if (excess > 0) {
+            List<ExtractionStatus> finished = new ArrayList<>(tasks.values().stream().filter(this::isFinished).toList());
+            finished.sort(Comparator.comparingLong(ExtractionStatus::getEndTime));
+            for (int i = 0; i < Math.min(excess, finished.size()); i++) {
+                if (tasks.remove(finished.get(i).getTaskId(), finished.get(i))) {
+                    evictedBySize.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean isFinished(ExtractionStatus status) {
+        return status.getStatus() == ExtractionStatus.Status.COMPLETED
+                || status.getStatus() == ExtractionStatus.Status.FAILED
+                || status.getStatus() == ExtractionStatus.Status.CANCELLED;
+    }
+
+    private void trimHistory() {
+        Iterator<String> oldest = history.keySet().iterator();
+        while (history.size() > historyMaxEntries && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Rewrite the file with only the retained entries; caller holds the monitor
+     */
+    private void compactHistory() throws IOException {
+        Path temporary = historyFile().resolveSibling(HISTORY_FILE + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (ExtractionStatus status : history.values()) {
+                writer.write(objectMapper.writeValueAsString(historyRecord(status)));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, historyFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        historyLines = history.size();
+        historyCompactions.incrementAndGet();
+    }
+
+    /**
+     * Result fields only; live counters such as throughput and ETA are not worth keeping
+     */
+    private Map<String, Object> historyRecord(ExtractionStatus status) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("taskId", status.getTaskId());
+        record.put("status", status.getStatus());
+        record.put("message", status.getMessage());
+        record.put("zipFilePath", status.getZipFilePath());
+        record.put("extractionPath", status.getExtractionPath());
+        record.put("progressPercentage", status.getProgressPercentage());
+        record.put("startTime", status.getStartTime());
+        record.put("endTime", status.getEndTime());
+        record.put("errorMessage", status.getErrorMessage());
+        record.put("totalEntries", status.getTotalEntries());
+        record.put("totalBytes", status.getTotalBytes());
+        record.put("bytesWritten", status.getBytesWritten());
+        record.put("unchangedEntries", status.getUnchangedEntries());
+        record.put("resumedEntries", status.getResumedEntries());
+        return record;
+    }
+
+    private Path historyFile() {
+        return Paths.get(dataDirectory).resolve(HISTORY_FILE);
+    }
+}
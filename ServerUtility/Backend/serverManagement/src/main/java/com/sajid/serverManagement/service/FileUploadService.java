@@ -1,16 +1,31 @@
 package com.sajid.serverManagement.service;
 
+import com.sajid.serverManagement.dto.ExtractionResult;
+import com.sajid.serverManagement.dto.StreamExtractionResult;
+import com.sajid.serverManagement.util.ArchiveFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class FileUploadService {
@@ -20,36 +35,144 @@ public class FileUploadService {
     @Value("${server.base-path}")
     private String basePath;
 
-    private static final String[] ALLOWED_EXTENSIONS = {".zip"};
+    @Autowired
+    private ExtractionPipeline extractionPipeline;
+
+    @Autowired
+    private StreamingZipExtractor streamingZipExtractor;
+
+    @Autowired
+    private ArchiveIndex archiveIndex;
+
     private static final long MAX_FILE_SIZE = 5L * 1024 * 1024 * 1024; // 5GB
     private static final String SERVER_ZIP_FOLDER = "ServerZip";
-
-    public String uploadZipFile(MultipartFile file) throws IOException {
+    private static final int STREAM_WRITE_SIZE = 1024 * 1024;
+
+    /**
+     * An upload in its final place; a duplicate points at the archive stored earlier with the same
+     * content, which may have another name
+     */
+    public record StoredArchive(String filePath, long size, String sha256, boolean duplicate) {}
+
+    /**
+     * Store a multipart upload in ServerZip. The container's spooled part is read once to hash it,
+     * then handed over with transferTo, which moves the spooled file instead of copying it when both
+     * are on the same volume, and stored with {@link #storeArchive} like a streamed upload. A part
+     * whose hash is already stored is not transferred at all.
+     */
+    public StoredArchive uploadZipFile(MultipartFile file) throws IOException {
         validateFile(file);
 
-        // Create ServerZip directory inside base path if it doesn't exist
-        Path basePathDir = Paths.get(basePath);
-        Path serverZipPath = basePathDir.resolve(SERVER_ZIP_FOLDER);
+        // Use original filename without timestamp
+        String originalFilename = file.getOriginalFilename();
 
-        if (!Files.exists(serverZipPath)) {
-            Files.createDirectories(serverZipPath);
-            logger.info("Created ServerZip directory: {}", serverZipPath);
+        MessageDigest digest = sha256Digest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
         }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        logger.info("Received upload of {} bytes for {} (sha256 {})", file.getSize(), originalFilename, sha256);
 
-        // Use original filename without timestamp
-        String originalFilename = file.getOriginalFilename();
+        Optional<Path> known = archiveIndex.findArchive(sha256);
+        if (known.isPresent()) {
+            logger.info("{} has the same content as {}, keeping the stored archive", originalFilename, known.get());
+            return new StoredArchive(known.get().toString(), file.getSize(), sha256, true);
+        }
+
+        Path partial = partialFile(originalFilename);
+        try {
+            file.transferTo(partial.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return storeArchive(partial, originalFilename, sha256);
+    }
+
+    /**
+     * Write a raw (non-multipart) upload body straight to its final place in ServerZip, so the bytes
+     * hit the disk once instead of going through the container's temp file first. The body lands in
+     * a .part file, hashed as it is written, and is then stored with {@link #storeArchive}. A client
+     * that declares a hash the {@link ArchiveIndex} already knows gets the stored archive without the
+     * body being read at all.
+     *
+     * @param sha256 hash declared by the client, or null; a body that does not match it is discarded
+     */
+    public StoredArchive uploadStream(InputStream body, String filename, long contentLength, String sha256) throws IOException {
+        String declared = ArchiveIndex.normalizeSha256(sha256);
+        validateUpload(filename, contentLength);
+
+        Optional<Path> known = archiveIndex.findArchive(declared);
+        if (known.isPresent()) {
+            logger.info("{} is already stored as {}, skipping the transfer", filename, known.get());
+            return new StoredArchive(known.get().toString(), Files.size(known.get()), declared, true);
+        }
+
+        Path partial = partialFile(filename);
+        MessageDigest digest = sha256Digest();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            byte[] bytes = new byte[STREAM_WRITE_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int read;
+            // Fill the whole buffer before each write so the disk sees few large writes
+            while ((read = body.readNBytes(bytes, 0, bytes.length)) > 0) {
+                written += read;
+                if (written > MAX_FILE_SIZE) {
+                    throw new IllegalArgumentException("File size exceeds maximum allowed size of " + (MAX_FILE_SIZE / 1024 / 1024 / 1024) + "GB");
+                }
+                digest.update(bytes, 0, read);
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (contentLength >= 0 && written != contentLength) {
+                throw new IOException("Upload ended after " + written + " of " + contentLength + " bytes");
+            }
+            if (written == 0) {
+                throw new IllegalArgumentException("File cannot be null or empty");
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (declared != null && !declared.equals(actual)) {
+            Files.deleteIfExists(partial);
+            throw new IllegalArgumentException("Checksum mismatch for " + filename + ": expected " + declared
+                    + ", received " + actual + "; the upload was discarded");
+        }
+        logger.info("Streamed upload of {} bytes for {} (sha256 {})", written, filename, actual);
+        return storeArchive(partial, filename, actual);
+    }
 
-        // Save the file inside ServerZip folder with original name
-        Path filePath = serverZipPath.resolve(originalFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Put a complete, hashed upload in place under its name in ServerZip, replacing any file of that
+     * name. When an archive with the same hash is already stored the upload is deleted instead and
+     * the stored one is returned.
+     */
+    public StoredArchive storeArchive(Path partial, String filename, String sha256) throws IOException {
+        long size = Files.size(partial);
+        Optional<Path> existing = archiveIndex.findArchive(sha256);
+        if (existing.isPresent()) {
+            Files.delete(partial);
+            logger.info("{} has the same content as {}, keeping the stored archive", filename, existing.get());
+            return new StoredArchive(existing.get().toString(), size, sha256, true);
+        }
 
-        logger.info("Successfully uploaded file: {} to path: {}", originalFilename, filePath);
-        return filePath.toString();
+        Path filePath = serverZipDirectory().resolve(filename);
+        Files.move(partial, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        archiveIndex.recordArchive(sha256, filePath);
+        logger.info("Stored upload at path: {}", filePath);
+        return new StoredArchive(filePath.toString(), size, sha256, false);
     }
 
     public String uploadAndExtractZipFile(MultipartFile file) throws IOException {
         // First upload the file
-        String uploadedFilePath = uploadZipFile(file);
+        String uploadedFilePath = uploadZipFile(file).filePath();
 
         // Then extract it
         String extractionPath = extractZipFile(uploadedFilePath);
@@ -57,61 +180,74 @@ public class FileUploadService {
         return extractionPath;
     }
 
-    public String extractZipFile(String zipFilePath) throws IOException {
-        Path zipPath = Paths.get(zipFilePath);
+    /**
+     * Extract a raw (non-multipart) upload body as it arrives instead of spooling, copying and
+     * re-reading it. The archive is kept in ServerZip only when asked to.
+     */
+    public StreamExtractionResult uploadAndExtractStream(InputStream body, String filename, long contentLength,
+                                                         boolean keepArchive) throws IOException {
+        validateUpload(filename, contentLength);
 
-        if (!Files.exists(zipPath)) {
-            throw new IOException("ZIP file not found: " + zipFilePath);
-        }
+        Path serverZipPath = serverZipDirectory();
 
-        // Create extraction directory (same name as zip file without extension)
-        String fileName = zipPath.getFileName().toString();
-        String folderName = fileName.substring(0, fileName.lastIndexOf('.'));
-        Path extractionDir = zipPath.getParent().resolve(folderName);
+        Path extractionDir = serverZipPath.resolve(ArchiveFormat.baseName(filename));
+        Path archiveCopy = keepArchive ? serverZipPath.resolve(filename) : null;
 
-        if (!Files.exists(extractionDir)) {
-            Files.createDirectories(extractionDir);
-            logger.info("Created extraction directory: {}", extractionDir);
-        }
+        // Written without a hash, so the folder will no longer match any indexed archive
+        archiveIndex.forgetExtraction(extractionDir);
+        return streamingZipExtractor.extract(body, ArchiveFormat.of(filename), extractionDir, archiveCopy,
+                contentLength, MAX_FILE_SIZE);
+    }
 
-        // Extract the ZIP file
-        try (java.util.zip.ZipInputStream zis = new java.util.zip.ZipInputStream(new java.io.FileInputStream(zipPath.toFile()))) {
-            java.util.zip.ZipEntry zipEntry = zis.getNextEntry();
+    public String extractZipFile(String zipFilePath) throws IOException {
+        return extractZipFile(zipFilePath, ExtractionOptions.defaults());
+    }
 
-            while (zipEntry != null) {
-                Path newPath = extractionDir.resolve(zipEntry.getName());
+    public String extractZipFile(String zipFilePath, ExtractionOptions options) throws IOException {
+        return extract(zipFilePath, options).getExtractionPath();
+    }
 
-                // Security check to prevent zip slip attacks
-                if (!newPath.normalize().startsWith(extractionDir.normalize())) {
-                    throw new IOException("Bad zip entry: " + zipEntry.getName());
-                }
+    /**
+     * Extract into the zip's sibling folder and report the pipeline's counters
+     */
+    public ExtractionResult extract(String zipFilePath, ExtractionOptions options) throws IOException {
+        return extractionPipeline.extract(Paths.get(zipFilePath), options, ParallelZipExtractor.ProgressListener.NONE);
+    }
 
-                if (zipEntry.isDirectory()) {
-                    Files.createDirectories(newPath);
-                } else {
-                    // Create parent directories if they don't exist
-                    if (newPath.getParent() != null) {
-                        Files.createDirectories(newPath.getParent());
-                    }
-
-                    // Extract file
-                    try (java.io.BufferedOutputStream bos = new java.io.BufferedOutputStream(new java.io.FileOutputStream(newPath.toFile()))) {
-                        byte[] buffer = new byte[8192]; // Optimized buffer size for large files
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            bos.write(buffer, 0, len);
-                        }
-                    }
-                }
+    /**
+     * Extract into an explicit directory instead of the zip's sibling folder
+     */
+    public String extractZipFile(String zipFilePath, Path extractionDir) throws IOException {
+        return extractZipFile(zipFilePath, extractionDir, ExtractionOptions.defaults());
+    }
 
-                zipEntry = zis.getNextEntry();
-            }
+    public String extractZipFile(String zipFilePath, Path extractionDir, ExtractionOptions options) throws IOException {
+        return extractionPipeline.extract(Paths.get(zipFilePath), extractionDir, options,
+                ParallelZipExtractor.ProgressListener.NONE).getExtractionPath();
+    }
 
-            zis.closeEntry();
+    /**
+     * ServerZip inside the base path, created on first use; uploads end up here
+     */
+    public Path serverZipDirectory() throws IOException {
+        Path serverZipPath = Paths.get(basePath).resolve(SERVER_ZIP_FOLDER);
+        if (!Files.exists(serverZipPath)) {
+            Files.createDirectories(serverZipPath);
+            logger.info("Created ServerZip directory: {}", serverZipPath);
         }
+        return serverZipPath;
+    }
 
-        logger.info("Successfully extracted ZIP file: {} to directory: {}", zipFilePath, extractionDir);
-        return extractionDir.toString();
+    /**
+     * Name and size checks shared by every upload path
+     *
+     * @param size declared size, or -1 when it is not known up front
+     */
+    public void validateUpload(String filename, long size) {
+        if (size > MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size of " + (MAX_FILE_SIZE / 1024 / 1024 / 1024) + "GB");
+        }
+        validateFileName(filename);
     }
 
     private void validateFile(MultipartFile file) {
@@ -119,34 +255,35 @@ public class FileUploadService {
             throw new IllegalArgumentException("File cannot be null or empty");
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size exceeds maximum allowed size of " + (MAX_FILE_SIZE / 1024 / 1024 / 1024) + "GB");
-        }
+        validateUpload(file.getOriginalFilename(), file.getSize());
+    }
 
-        String filename = file.getOriginalFilename();
+    private void validateFileName(String filename) {
         if (filename == null || filename.trim().isEmpty()) {
             throw new IllegalArgumentException("Filename cannot be null or empty");
         }
-
-        String fileExtension = getFileExtension(filename);
-        boolean isValidExtension = false;
-        for (String allowedExt : ALLOWED_EXTENSIONS) {
-            if (allowedExt.equalsIgnoreCase(fileExtension)) {
-                isValidExtension = true;
-                break;
-            }
+        if (filename.contains("/") || filename.contains("\\") || filename.contains("..")) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
         }
 
-        if (!isValidExtension) {
-            throw new IllegalArgumentException("Only ZIP files are allowed");
+        if (ArchiveFormat.of(filename) == null) {
+            throw new IllegalArgumentException("Only ZIP, TAR, TAR.GZ and TAR.ZST files are allowed");
         }
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf('.') == -1) {
-            return "";
+    /**
+     * Hidden and unique, so concurrent uploads of the same file never write into each other
+     */
+    private Path partialFile(String filename) throws IOException {
+        return serverZipDirectory().resolve("." + filename + "." + UUID.randomUUID() + ".part");
+    }
+
+    private MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
-        return filename.substring(filename.lastIndexOf('.'));
     }
 
     public boolean deleteFile(String filePath) {
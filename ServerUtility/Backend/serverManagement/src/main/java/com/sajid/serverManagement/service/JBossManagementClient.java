@@ -0,0 +1,189 @@
+package com.sajid.serverManagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal client for the JBoss EAP HTTP management API (POST /management with DMR JSON).
+ * Handles the Digest challenge the management realm sends when credentials are configured.
+ */
+@Component
+public class JBossManagementClient {
+
+    private static final Pattern DIGEST_PARAM = Pattern.compile("(\\w+)=(?:\"([^\"]*)\"|([^,\\s]*))");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    @Value("${jboss.management.host:localhost}")
+    private String host;
+
+    @Value("${jboss.management.port:9990}")
+    private int baseManagementPort;
+
+    @Value("${jboss.management.username:}")
+    private String username;
+
+    @Value("${jboss.management.password:}")
+    private String password;
+
+    /**
+     * Management port for the server bound to the given HTTP port; both shift by the same port offset
+     */
+    public int managementPortFor(int httpPort) {
+        return baseManagementPort + (httpPort - 8080);
+    }
+
+    /**
+     * :suspend(suspend-timeout=N) - returns when the server is suspended or the timeout elapses,
+     * so callers run it asynchronously and watch the request count meanwhile
+     */
+    public CompletableFuture<JsonNode> suspendAsync(int managementPort, int suspendTimeoutSeconds) {
+        ObjectNode op = operation("suspend");
+        op.put("suspend-timeout", suspendTimeoutSeconds);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(managementPort, op, Duration.ofSeconds(suspendTimeoutSeconds + 10L));
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while suspending", e);
+            }
+        });
+    }
+
+    /**
+     * /subsystem=request-controller:read-attribute(name=active-requests)
+     */
+    public int readActiveRequests(int managementPort) throws IOException, InterruptedException {
+        ObjectNode op = operation("read-attribute");
+        op.putArray("address").addObject().put("subsystem", "request-controller");
+        op.put("name", "active-requests");
+        return execute(managementPort, op, Duration.ofSeconds(5)).asInt();
+    }
+
+    /**
+     * :read-attribute(name=suspend-state) - RUNNING, PRE_SUSPEND, SUSPENDING or SUSPENDED
+     */
+    public String readSuspendState(int managementPort) throws IOException, InterruptedException {
+        ObjectNode op = operation("read-attribute");
+        op.put("name", "suspend-state");
+        return execute(managementPort, op, Duration.ofSeconds(5)).asText();
+    }
+
+    public void shutdown(int managementPort) throws IOException, InterruptedException {
+        execute(managementPort, operation("shutdown"), Duration.ofSeconds(10));
+    }
+
+    private ObjectNode operation(String name) {
+        ObjectNode op = objectMapper.createObjectNode();
+        op.put("operation", name);
+        op.putArray("address");
+        return op;
+    }
+
+    /**
+     * Run a management operation and return its "result" node
+     */
+    private JsonNode execute(int managementPort, ObjectNode op, Duration timeout) throws IOException, InterruptedException {
+        URI uri = URI.create("http://" + host + ":" + managementPort + "/management");
+        String body = objectMapper.writeValueAsString(op);
+
+        HttpResponse<String> response = httpClient.send(request(uri, body, timeout, null), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 401 && !username.isEmpty()) {
+            String challenge = response.headers().firstValue("WWW-Authenticate").orElse("");
+            if (!challenge.regionMatches(true, 0, "Digest", 0, 6)) {
+                throw new IOException("Unsupported management authentication scheme: " + challenge);
+            }
+            String authorization = digestAuthorization(challenge, uri.getPath());
+            response = httpClient.send(request(uri, body, timeout, authorization), HttpResponse.BodyHandlers.ofString());
+        }
+
+        if (response.statusCode() == 401) {
+            throw new IOException("Management interface on port " + managementPort + " rejected the credentials");
+        }
+
+        JsonNode result = objectMapper.readTree(response.body());
+        if (!"success".equals(result.path("outcome").asText())) {
+            throw new IOException("Management operation '" + op.path("operation").asText() + "' failed: "
+                    + result.path("failure-description").asText(response.body()));
+        }
+        return result.path("result");
+    }
+
+    private HttpRequest request(URI uri, String body, Duration timeout, String authorization) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder.build();
+    }
+
+    private String digestAuthorization(String challenge, String path) {
+        Map<String, String> params = new LinkedHashMap<>();
+        Matcher matcher = DIGEST_PARAM.matcher(challenge.substring(6));
+        while (matcher.find()) {
+            params.put(matcher.group(1), matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+        }
+
+        String realm = params.getOrDefault("realm", "");
+        String nonce = params.getOrDefault("nonce", "");
+        String cnonce = UUID.randomUUID().toString().replace("-", "");
+        String nc = "00000001";
+        String ha1 = md5(username + ":" + realm + ":" + password);
+        String ha2 = md5("POST:" + path);
+
+        StringBuilder header = new StringBuilder("Digest ")
+                .append("username=\"").append(username).append("\", ")
+                .append("realm=\"").append(realm).append("\", ")
+                .append("nonce=\"").append(nonce).append("\", ")
+                .append("uri=\"").append(path).append("\", ");
+
+        if (params.containsKey("qop")) {
+            header.append("qop=auth, nc=").append(nc).append(", cnonce=\"").append(cnonce).append("\", ")
+                  .append("response=\"").append(md5(ha1 + ":" + nonce + ":" + nc + ":" + cnonce + ":auth:" + ha2)).append("\"");
+        } else {
+            header.append("response=\"").append(md5(ha1 + ":" + nonce + ":" + ha2)).append("\"");
+        }
+        if (params.containsKey("opaque")) {
+            header.append(", opaque=\"").append(params.get("opaque")).append("\"");
+        }
+        header.append(", algorithm=MD5");
+        return header.toString();
+    }
+
+    private static String md5(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Multi-threaded ZIP extraction.
+ *
+ * The central directory is read up front ({@link ZipCentralDirectory}), which gives random access to
+ * every entry. All entries are validated against zip slip and the directory skeleton is created
+ * before anything else, then file entries are written by a pool of workers through
+ * {@link ExtractionIo}. Files are handed out largest-first from a shared cursor, so a few huge files
+ * start early and the many small ones fill in around them instead of one worker ending up with all
+ * the big files.
+ */
+@Component
+public class ParallelZipExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelZipExtractor.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000L;
+
+    public interface ProgressListener {
+        ProgressListener NONE = progress -> { };
+
+        /**
+         * Sampled: called once the totals are known, then at most every 250 ms from whichever worker
+         * crosses the interval, and a last time when every entry is written
+         */
+        void onProgress(Progress progress);
+    }
+
+    /**
+     * Live counters of one extraction. For ZIPs the totals come from the central directory, so they
+     * are exact before the first byte is inflated. A streamed tarball has no index: its totals grow
+     * as entries go by and the percentage follows how much of the archive has been read.
+     */
+    public static final class Progress {
+        private volatile int totalEntries;
+        private volatile long totalBytes;
+        private final long totalCompressedBytes;
+        private final boolean streaming;
+        private final AtomicLong compressedBytesRead = new AtomicLong();
+        private volatile boolean finished;
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private final AtomicInteger completedEntries = new AtomicInteger();
+        private volatile String currentEntry = "";
+        private int unchangedEntries;
+        private long unchangedBytes;
+        private int resumedEntries;
+        private long resumedBytes;
+        private int deletedOrphans;
+        private int filesWritten;
+        private int skippedEntries;
+        private long skippedBytes;
+        private long skippedCompressedBytes;
+        private final AtomicInteger linkedEntries = new AtomicInteger();
+        private final AtomicLong linkedBytes = new AtomicLong();
+
+        Progress(int totalEntries, long totalBytes, long totalCompressedBytes) {
+            this(totalEntries, totalBytes, totalCompressedBytes, false);
+        }
+
+        private Progress(int totalEntries, long totalBytes, long totalCompressedBytes, boolean streaming) {
+            this.totalEntries = totalEntries;
+            this.totalBytes = totalBytes;
+            this.totalCompressedBytes = totalCompressedBytes;
+            this.streaming = streaming;
+        }
+
+        /**
+         * @param archiveSize size of the archive being read, or -1 when it is not known (chunked uploads)
+         */
+        static Progress streaming(long archiveSize) {
+            return new Progress(0, 0, archiveSize, true);
+        }
+
+        // Updated by TarExtractor from its single reading thread
+
+        void streamed(String name, long size) {
+            currentEntry = name;
+            totalEntries++;
+            totalBytes += size;
+        }
+
+        void streamedSkip(long size) {
+            skippedEntries++;
+            skippedBytes += size;
+        }
+
+        void archiveRead(long bytes) {
+            compressedBytesRead.addAndGet(bytes);
+        }
+
+        void wrote(long bytes) {
+            bytesWritten.addAndGet(bytes);
+        }
+
+        void entryDone() {
+            completedEntries.incrementAndGet();
+        }
+
+        void finish(int filesWritten, int deletedOrphans) {
+            this.filesWritten = filesWritten;
+            this.deletedOrphans = deletedOrphans;
+            finished = true;
+        }
+
+        public int getTotalEntries() {
+            return totalEntries;
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public long getTotalCompressedBytes() {
+            return totalCompressedBytes;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten.get();
+        }
+
+        public int getCompletedEntries() {
+            return completedEntries.get();
+        }
+
+        public String getCurrentEntry() {
+            return currentEntry;
+        }
+
+        /**
+         * True for tarballs, whose totals are only final once the whole archive has been read
+         */
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        public long getCompressedBytesRead() {
+            return compressedBytesRead.get();
+        }
+
+        /**
+         * Entries an incremental extraction found identical and did not rewrite
+         */
+        public int getUnchangedEntries() {
+            return unchangedEntries;
+        }
+
+        public long getUnchangedBytes() {
+            return unchangedBytes;
+        }
+
+        /**
+         * Entries an interrupted earlier extraction into the same directory had already written
+         */
+        public int getResumedEntries() {
+            return resumedEntries;
+        }
+
+        public long getResumedBytes() {
+            return resumedBytes;
+        }
+
+        public int getDeletedOrphans() {
+            return deletedOrphans;
+        }
+
+        /**
+         * Entries the filter left out; they are neither read nor counted in the totals
+         */
+        public int getSkippedEntries() {
+            return skippedEntries;
+        }
+
+        public long getSkippedBytes() {
+            return skippedBytes;
+        }
+
+        public long getSkippedCompressedBytes() {
+            return skippedCompressedBytes;
+        }
+
+        /**
+         * Files hardlinked to identical content in the {@link ContentStore} instead of being written
+         */
+        public int getLinkedEntries() {
+            return linkedEntries.get();
+        }
+
+        public long getLinkedBytes() {
+            return linkedBytes.get();
+        }
+
+        /**
+         * Files actually (re)written, after the filter, journal and incremental checks
+         */
+        public int getFilesWritten() {
+            return filesWritten;
+        }
+
+        /**
+         * Byte-based when the sizes are known, entry-based for archives that only contain empty files,
+         * and based on the archive bytes read for streams
+         */
+        public int getPercentage() {
+            if (streaming) {
+                if (finished) {
+                    return 100;
+                }
+                return totalCompressedBytes > 0 ? (int) Math.min(99, compressedBytesRead.get() * 100 / totalCompressedBytes) : 0;
+            }
+            if (totalBytes > 0) {
+                return (int) Math.min(100, (bytesWritten.get() + unchangedBytes + resumedBytes) * 100 / totalBytes);
+            }
+            return totalEntries == 0 ? 100 : completedEntries.get() * 100 / totalEntries;
+        }
+    }
+
+    private final Executor workerExecutor;
+    private final int configuredThreads;
+    private final ExtractionIo io;
+
+    @Autowired
+    public ParallelZipExtractor(@Qualifier("zipWorkerExecutor") Executor workerExecutor,
+                                @Value("${extraction.parallel.threads:0}") int configuredThreads,
+                                ExtractionIo io) {
+        this.workerExecutor = workerExecutor;
+        this.configuredThreads = configuredThreads;
+        this.io = io;
+    }
+
+    /**
+     * @return final counters of the extraction
+     */
+    public Progress extract(Path zipPath, Path extractionDir, ProgressListener listener) throws IOException {
+        return extract(zipPath, extractionDir, ExtractionOptions.defaults(), listener, io);
+    }
+
+    public Progress extract(Path zipPath, Path extractionDir, ExtractionOptions options, ProgressListener listener) throws IOException {
+        return extract(zipPath, extractionDir, options, listener, io);
+    }
+
+    /**
+     * Extract with explicit I/O settings (used by the buffer size benchmark)
+     */
+    public Progress extract(Path zipPath, Path extractionDir, ExtractionOptions options, ProgressListener listener,
+                            ExtractionIo io) throws IOException {
+        Path root = extractionDir.toAbsolutePath().normalize();
+        long started = System.currentTimeMillis();
+
+        List<ZipCentralDirectory.Entry> entries;
+        try (FileChannel channel = FileChannel.open(zipPath, StandardOpenOption.READ)) {
+            entries = ZipCentralDirectory.read(channel);
+        }
+
+        List<ZipCentralDirectory.Entry> files = new ArrayList<>();
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(root);
+        int directoryEntries = 0;
+        long totalBytes = 0;
+        long totalCompressedBytes = 0;
+        int skippedEntries = 0;
+        long skippedBytes = 0;
+        long skippedCompressedBytes = 0;
+
+        EntryFilter filter = options.getEntryFilter();
+        for (ZipCentralDirectory.Entry entry : entries) {
+            Path target = resolve(root, entry.getName());
+            if (!filter.accept(entry.getName())) {
+                skippedEntries++;
+                skippedBytes += entry.getSize();
+                skippedCompressedBytes += entry.getCompressedSize();
+                continue;
+            }
+
+            if (entry.isDirectory()) {
+                directories.add(target);
+                directoryEntries++;
+            } else {
+                files.add(entry);
+                directories.add(target.getParent());
+                totalBytes += entry.getSize();
+                totalCompressedBytes += entry.getCompressedSize();
+            }
+        }
+        Progress progress = new Progress(directoryEntries + files.size(), totalBytes, totalCompressedBytes);
+        progress.skippedEntries = skippedEntries;
+        progress.skippedBytes = skippedBytes;
+        progress.skippedCompressedBytes = skippedCompressedBytes;
+        if (skippedEntries > 0) {
+            logger.info("Filter skips {} of {} entries ({} bytes) in {}", skippedEntries, entries.size(), skippedBytes,
+                    zipPath.getFileName());
+        }
+
+        // Directory skeleton first, so workers never race each other creating parents
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+        }
+
+        ExtractionControl control = options.getControl();
+        control.checkpoint();
+
+        // Entries an interrupted earlier run already finished, then (incremental) entries that did not change
+        Map<String, ExtractionManifest.Entry> previous = ExtractionManifest.load(root);
+        Map<String, ExtractionManifest.Entry> journaled = ExtractionJournal.load(root);
+        List<ZipCentralDirectory.Entry> pending = new ArrayList<>();
+        for (ZipCentralDirectory.Entry entry : files) {
+            Path target = root.resolve(entry.getName());
+            ExtractionManifest.Entry done = journaled.get(entry.getName());
+            if (done != null && isUnchanged(entry, target, done)) {
+                progress.resumedEntries++;
+                progress.resumedBytes += entry.getSize();
+            } else if (options.isIncremental() && isUnchanged(entry, target, previous.get(entry.getName()))) {
+                progress.unchangedEntries++;
+                progress.unchangedBytes += entry.getSize();
+            } else {
+                pending.add(entry);
+            }
+        }
+        if (progress.resumedEntries > 0) {
+            logger.info("Resuming extraction into {}: {} entries already done", root, progress.resumedEntries);
+        }
+        progress.completedEntries.set(directoryEntries + progress.unchangedEntries + progress.resumedEntries);
+        listener.onProgress(progress);
+        AtomicLong nextReport = new AtomicLong(System.nanoTime() + PROGRESS_INTERVAL_NANOS);
+        LongConsumer written = bytes -> {
+            progress.bytesWritten.addAndGet(bytes);
+            report(progress, listener, nextReport);
+            control.checkpoint();
+        };
+
+        pending.sort(Comparator.comparingLong(ZipCentralDirectory.Entry::getSize).reversed());
+        int workers = Math.max(1, Math.min(threads(), pending.size()));
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        ContentStore store = options.getContentStore();
+
+        try (ExtractionJournal journal = ExtractionJournal.open(root)) {
+            CompletableFuture<?>[] running = new CompletableFuture[workers];
+            for (int w = 0; w < workers; w++) {
+                running[w] = CompletableFuture.runAsync(() -> {
+                    // Own channel per worker: positional reads on a shared channel serialize on Windows
+                    ExtractionIo.Buffers buffers = io.acquire();
+                    try (FileChannel archive = FileChannel.open(zipPath, StandardOpenOption.READ)) {
+                        int index;
+                        while (failure.get() == null && (index = cursor.getAndIncrement()) < pending.size()) {
+                            control.checkpoint();
+                            ZipCentralDirectory.Entry entry = pending.get(index);
+                            progress.currentEntry = entry.getName();
+                            Path target = root.resolve(entry.getName());
+                            if (store != null && store.accepts(entry)) {
+                                if (store.write(io, archive, entry, target, buffers, written)) {
+                                    progress.linkedEntries.incrementAndGet();
+                                    progress.linkedBytes.addAndGet(entry.getSize());
+                                }
+                            } else {
+                                io.write(archive, entry, target, buffers, written);
+                            }
+                            journal.record(entry);
+                            progress.completedEntries.incrementAndGet();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        io.release(buffers);
+                    }
+                }, workerExecutor);
+            }
+
+            try {
+                CompletableFuture.allOf(running).join();
+            } catch (CompletionException e) {
+                throw new IOException("Extraction worker failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        if (failure.get() instanceof IOException e) {
+            throw e;
+        }
+        if (failure.get() instanceof RuntimeException e) {
+            throw e;
+        }
+
+        if (options.isDeleteOrphans()) {
+            progress.deletedOrphans = deleteOrphans(root, previous, files, filter);
+        }
+        // A filtered run keeps the records of files it was not asked to touch
+        Map<String, ExtractionManifest.Entry> retained = new HashMap<>();
+        for (Map.Entry<String, ExtractionManifest.Entry> recorded : previous.entrySet()) {
+            if (!filter.accept(recorded.getKey())) {
+                retained.put(recorded.getKey(), recorded.getValue());
+            }
+        }
+        ExtractionManifest.write(root, files, retained);
+        ExtractionJournal.delete(root);
+        progress.filesWritten = pending.size();
+        listener.onProgress(progress);
+
+        logger.info("Extracted {} entries ({} files written, {} linked, {} unchanged, {} resumed, {} bytes) from {} with {} workers in {} ms",
+                progress.getTotalEntries(), pending.size(), progress.getLinkedEntries(), progress.getUnchangedEntries(),
+                progress.getResumedEntries(), progress.getBytesWritten(), zipPath.getFileName(), workers,
+                System.currentTimeMillis() - started);
+        return progress;
+    }
+
+    /**
+     * Unchanged when the manifest of the previous extraction has the same CRC, size and time and the
+     * file on disk still has that size and time (so local edits are rewritten). Without a manifest,
+     * the file on disk alone decides; entry times are DOS times with 2 s resolution.
+     */
+    private boolean isUnchanged(ZipCentralDirectory.Entry entry, Path target, ExtractionManifest.Entry recorded) throws IOException {
+        if (recorded != null && !recorded.equals(ExtractionManifest.Entry.of(entry))) {
+            return false;
+        }
+        if (!Files.isRegularFile(target)) {
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(target, BasicFileAttributes.class);
+        return attributes.size() == entry.getSize()
+                && Math.abs(attributes.lastModifiedTime().toMillis() - entry.getLastModified()) < 2000;
+    }
+
+    /**
+     * Only files a previous extraction recorded are candidates; logs, deployments and other runtime
+     * data that never came from an archive are left alone
+     */
+    private int deleteOrphans(Path root, Map<String, ExtractionManifest.Entry> previous,
+                              List<ZipCentralDirectory.Entry> files, EntryFilter filter) throws IOException {
+        if (previous.isEmpty()) {
+            logger.info("No extraction manifest in {}, skipping orphan cleanup", root);
+            return 0;
+        }
+        Set<String> current = new HashSet<>();
+        for (ZipCentralDirectory.Entry entry : files) {
+            current.add(entry.getName());
+        }
+        int deleted = 0;
+        for (String name : previous.keySet()) {
+            // Files the filter excluded this time are not orphans, they were just not asked for
+            if (!current.contains(name) && filter.accept(name) && Files.deleteIfExists(resolve(root, name))) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} orphaned files from {}", deleted, root);
+        }
+        return deleted;
+    }
+
+    /**
+     * Zip slip protection: every entry must stay inside the extraction directory
+     */
+    private Path resolve(Path root, String entryName) throws IOException {
+        Path target = root.resolve(entryName).normalize();
+        if (!target.startsWith(root)) {
+            throw new IOException("Bad zip entry: " + entryName);
+        }
+        return target;
+    }
+
+    /**
+     * Only the worker that wins the CAS for the current interval calls the listener
+     */
+    private void report(Progress progress, ProgressListener listener, AtomicLong nextReport) {
+        long due = nextReport.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextReport.compareAndSet(due, now + PROGRESS_INTERVAL_NANOS)) {
+            listener.onProgress(progress);
+        }
+    }
+
+    private int threads() {
+        return configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
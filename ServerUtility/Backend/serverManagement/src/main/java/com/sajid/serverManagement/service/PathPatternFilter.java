@@ -0,0 +1,114 @@
+package com.sajid.serverManagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Include/exclude filter over archive paths. A pattern without wildcards is a path prefix matched
+ * on folder boundaries ("modules/system" covers "modules/system/layers/..." but not
+ * "modules/systemx"). A pattern with wildcards is a glob: {@code *} and {@code ?} stay within one
+ * path segment and {@code **} spans segments. A pattern that matches a folder covers everything
+ * below it, so "jboss-eap-*&#47;standalone/deployments" selects that whole folder.
+ *
+ * With no includes everything is included; excludes win over includes.
+ */
+public final class PathPatternFilter implements EntryFilter {
+
+    private final List<String> include;
+    private final List<String> exclude;
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+
+    private PathPatternFilter(List<String> include, List<String> exclude, List<Pattern> includes, List<Pattern> excludes) {
+        this.include = include;
+        this.exclude = exclude;
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * @return {@link EntryFilter#ALL} when both lists are empty or null
+     */
+    public static EntryFilter of(List<String> include, List<String> exclude) {
+        List<Pattern> includes = compile(include);
+        List<Pattern> excludes = compile(exclude);
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return ALL;
+        }
+        return new PathPatternFilter(include == null ? List.of() : List.copyOf(include),
+                exclude == null ? List.of() : List.copyOf(exclude), includes, excludes);
+    }
+
+    /**
+     * Patterns as given, so a task can be recorded and rebuilt after a restart
+     */
+    public List<String> getInclude() {
+        return include;
+    }
+
+    public List<String> getExclude() {
+        return exclude;
+    }
+
+    @Override
+    public boolean accept(String name) {
+        String path = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+        return (includes.isEmpty() || matches(includes, path)) && !matches(excludes, path);
+    }
+
+    /**
+     * True when the path itself or one of its parent folders matches
+     */
+    private static boolean matches(List<Pattern> patterns, String path) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+            for (int slash = path.indexOf('/'); slash > 0; slash = path.indexOf('/', slash + 1)) {
+                if (pattern.matcher(path.substring(0, slash)).matches()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>();
+        if (patterns == null) {
+            return compiled;
+        }
+        for (String raw : patterns) {
+            String pattern = raw == null ? "" : raw.trim().replace('\\', '/');
+            while (pattern.startsWith("/") || pattern.startsWith("./")) {
+                pattern = pattern.substring(pattern.startsWith("/") ? 1 : 2);
+            }
+            while (pattern.endsWith("/")) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            if (!pattern.isEmpty()) {
+                compiled.add(Pattern.compile(globToRegex(pattern)));
+            }
+        }
+        return compiled;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+}
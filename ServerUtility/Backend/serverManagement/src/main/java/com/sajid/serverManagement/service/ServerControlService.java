@@ -1,6 +1,10 @@
 package com.sajid.serverManagement.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sajid.serverManagement.dto.DrainResult;
+import com.sajid.serverManagement.dto.WaitResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -9,24 +13,46 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ServerControlService {
 
+    private static final long FORCE_STOP_VERIFY_MS = 10_000;
+    private static final long BIND_INITIAL_INTERVAL_MS = 500;
+    private static final long BIND_MAX_INTERVAL_MS = 5_000;
+
     @Autowired
     private ServerStatusService statusService;
 
+    @Autowired
+    private AdaptiveWaiter waiter;
+
+    @Autowired
+    private JBossManagementClient managementClient;
+
+    @Value("${servers.start.bind-timeout-seconds:60}")
+    private int bindTimeoutSeconds;
+
     public boolean startServer(String serverPath) throws IOException {
+        return startServer(serverPath, 0);
+    }
+
+    /**
+     * Start with jboss.socket.binding.port-offset so several servers can run side by side
+     */
+    public boolean startServer(String serverPath, int portOffset) throws IOException {
         String os = System.getProperty("os.name").toLowerCase();
 
         if (os.contains("win")) {
-            return startServerWindows(serverPath);
+            return startServerWindows(serverPath, portOffset);
         } else {
-            return startServerUnix(serverPath);
+            return startServerUnix(serverPath, portOffset);
         }
     }
 
-    private boolean startServerWindows(String serverPath) throws IOException {
+    private boolean startServerWindows(String serverPath, int portOffset) throws IOException {
         // Search for Windows batch file in both patterns
         File standaloneFile = findStartupScriptWithPatterns(serverPath, "standalone.bat");
         if (standaloneFile == null) {
@@ -39,13 +65,16 @@ public class ServerControlService {
         // Use 'start' command to open a new visible CMD window
         String command = "start \"Server Console\" /D \"" + binDirectory.getAbsolutePath() + "\" \"" +
                         standaloneFile.getAbsolutePath() + "\" -b 0.0.0.0";
+        if (portOffset != 0) {
+            command += " -Djboss.socket.binding.port-offset=" + portOffset;
+        }
 
         Runtime.getRuntime().exec("cmd /c " + command);
 
         return true;
     }
 
-    private boolean startServerUnix(String serverPath) throws IOException {
+    private boolean startServerUnix(String serverPath, int portOffset) throws IOException {
         // Search for Unix shell script in both patterns
         File standaloneFile = findStartupScriptWithPatterns(serverPath, "standalone.sh");
         if (standaloneFile == null) {
@@ -55,7 +84,11 @@ public class ServerControlService {
         // Get the bin directory containing the standalone.sh file
         File binDirectory = standaloneFile.getParentFile();
 
-        ProcessBuilder pb = new ProcessBuilder("bash", standaloneFile.getAbsolutePath(), "-b", "0.0.0.0");
+        List<String> command = new ArrayList<>(List.of("bash", standaloneFile.getAbsolutePath(), "-b", "0.0.0.0"));
+        if (portOffset != 0) {
+            command.add("-Djboss.socket.binding.port-offset=" + portOffset);
+        }
+        ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(binDirectory);
         pb.redirectErrorStream(true);
         pb.start();
@@ -63,6 +96,14 @@ public class ServerControlService {
         return true;
     }
 
+    /**
+     * Wait until a freshly launched server binds its HTTP port
+     */
+    public boolean awaitPortBound(int port) throws InterruptedException {
+        return waiter.await("bind:" + port, bindTimeoutSeconds * 1000L, BIND_INITIAL_INTERVAL_MS, BIND_MAX_INTERVAL_MS,
+                () -> statusService.getProcessIdUsingPort(port) != null).satisfied();
+    }
+
     /**
      * Search for startup script following JBoss EAP patterns
      * Pattern 1: {serverPath}/jboss-eap/bin/standalone.bat
@@ -164,8 +205,7 @@ public class ServerControlService {
         int exitCode = forceStop.waitFor();
 
         // Verify the process is actually stopped
-        Thread.sleep(2000);
-        boolean forceStopped = statusService.getProcessIdUsingPort(port) == null;
+        boolean forceStopped = waitForForcedShutdown(port);
 
         if (forceStopped && requireEndConfirmation) {
             // This represents the end confirmation state after force kill
@@ -299,21 +339,120 @@ public class ServerControlService {
      * Wait for process to shutdown gracefully within timeout
      */
     private boolean waitForProcessShutdown(int port, int timeoutSeconds) throws InterruptedException {
-        int checkInterval = 2; // Check every 2 seconds
-        int maxChecks = timeoutSeconds / checkInterval;
-
-        for (int i = 0; i < maxChecks; i++) {
-            Thread.sleep(checkInterval * 1000);
-            if (statusService.getProcessIdUsingPort(port) == null) {
-                System.out.println("Server shutdown gracefully after " + (i * checkInterval) + " seconds");
-                return true; // Server has stopped gracefully
-            }
+        WaitResult result = waiter.await("shutdown:" + port, timeoutSeconds * 1000L,
+                () -> statusService.getProcessIdUsingPort(port) == null);
+
+        if (result.satisfied()) {
+            System.out.println("Server shutdown gracefully after " + result.elapsedMs() + " ms (" + result.probes() + " probes)");
+            return true; // Server has stopped gracefully
         }
 
         System.out.println("Graceful shutdown timed out after " + timeoutSeconds + " seconds");
         return false; // Timeout reached
     }
 
+    /**
+     * Verify the port was released after a force kill
+     */
+    private boolean waitForForcedShutdown(int port) throws InterruptedException {
+        return waiter.await("force-stop:" + port, FORCE_STOP_VERIFY_MS,
+                () -> statusService.getProcessIdUsingPort(port) == null).satisfied();
+    }
+
+    /**
+     * Drain in-flight requests before stopping: :suspend through the management interface, wait for the
+     * active request count to fall to zero (or the suspend timeout to pass), then :shutdown.
+     * Falls back to the signal-based stop when the management interface cannot be reached.
+     */
+    public DrainResult drainAndStopServer(int port, int suspendTimeoutSeconds, int timeoutSeconds) throws IOException {
+        Long pid = statusService.getProcessIdUsingPort(port);
+        int managementPort = managementClient.managementPortFor(port);
+        DrainResult result = new DrainResult(port, managementPort, pid);
+        if (pid == null) {
+            result.setMessage("No server is running on port " + port);
+            return result;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            try {
+                result.setActiveRequestsAtStart(managementClient.readActiveRequests(managementPort));
+            } catch (IOException e) {
+                System.out.println("Management interface unavailable on port " + managementPort + ": " + e.getMessage());
+                result.setFallbackUsed(true);
+                result.setStopped(stopServer(port, timeoutSeconds, true));
+                result.setMessage("Management interface unavailable, used signal-based stop: " + e.getMessage());
+                return result;
+            }
+
+            // Suspend blocks until drained or timed out, so run it in the background and watch the count
+            CompletableFuture<JsonNode> suspend = managementClient.suspendAsync(managementPort, suspendTimeoutSeconds);
+            AtomicInteger lastActive = new AtomicInteger(result.getActiveRequestsAtStart());
+            WaitResult drain = waiter.await("drain:" + port, suspendTimeoutSeconds * 1000L, () -> {
+                if (suspend.isCompletedExceptionally()) {
+                    return true; // Suspend not supported or refused - no point waiting any longer
+                }
+                try {
+                    int active = managementClient.readActiveRequests(managementPort);
+                    lastActive.set(active);
+                    return active == 0 && !"RUNNING".equals(managementClient.readSuspendState(managementPort));
+                } catch (IOException e) {
+                    return false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            });
+
+            result.setSuspended(!suspend.isCompletedExceptionally());
+            result.setDrained(result.isSuspended() && drain.satisfied() && lastActive.get() == 0);
+            result.setActiveRequestsAtCutoff(lastActive.get());
+            result.setDrainDurationMs(drain.elapsedMs());
+            System.out.println("Drain on port " + port + " finished after " + drain.elapsedMs() + " ms with "
+                    + lastActive.get() + " active requests remaining");
+
+            long shutdownStart = System.currentTimeMillis();
+            int remainingSeconds = (int) Math.max(10, timeoutSeconds - (shutdownStart - start) / 1000);
+            boolean shutdownConfirmed = true;
+            try {
+                managementClient.shutdown(managementPort);
+            } catch (IOException e) {
+                // JBoss often drops the connection while it executes :shutdown; the process decides
+                System.out.println(":shutdown on management port " + managementPort + " failed (" + e.getMessage()
+                        + "), checking whether the server is stopping");
+                shutdownConfirmed = false;
+            }
+            // Without an answer to :shutdown, do not wait the full timeout for a server that may never have received it
+            boolean stopped = waitForProcessShutdown(port, shutdownConfirmed ? remainingSeconds : Math.min(10, remainingSeconds));
+            if (!stopped) {
+                System.out.println("Server did not exit after :shutdown, falling back to signal-based stop");
+                result.setFallbackUsed(!shutdownConfirmed);
+                stopped = stopServer(port, shutdownConfirmed ? 10 : remainingSeconds, true);
+            }
+            result.setStopped(stopped);
+            result.setShutdownDurationMs(System.currentTimeMillis() - shutdownStart);
+
+            if (!result.isSuspended()) {
+                result.setMessage("Suspend failed, server was shut down without draining");
+            } else if (result.isDrained()) {
+                result.setMessage("All requests drained before shutdown");
+            } else {
+                result.setMessage("Drain cut off after " + suspendTimeoutSeconds + " seconds with "
+                        + result.getActiveRequestsAtCutoff() + " active requests");
+            }
+            if (result.isFallbackUsed()) {
+                result.setMessage(result.getMessage() + "; :shutdown was not confirmed, used signal-based stop");
+            }
+            return result;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while draining server on port " + port, e);
+        } finally {
+            result.setTotalDurationMs(System.currentTimeMillis() - start);
+        }
+    }
+
     private boolean stopServerUnix(Long pid, int port, int timeoutSeconds, boolean requireEndConfirmation) throws IOException, InterruptedException {
         // Try graceful shutdown using SIGINT (equivalent to Ctrl+C) first
         boolean gracefulShutdown = attemptGracefulShutdownUnix(pid, port, timeoutSeconds);
@@ -331,8 +470,7 @@ public class ServerControlService {
         int exitCode = forceStop.waitFor();
 
         // Verify the process is actually stopped
-        Thread.sleep(1000);
-        boolean forceStopped = statusService.getProcessIdUsingPort(port) == null;
+        boolean forceStopped = waitForForcedShutdown(port);
 
         if (forceStopped && requireEndConfirmation) {
             // This represents the end confirmation state after force kill
@@ -0,0 +1,224 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.exception.ServerOperationConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes start/stop operations per server without a global lock.
+ *
+ * Every operation claims two resource keys: the server name and the HTTP port it binds. Two
+ * operations conflict when they share either key, so racing starts of the same server (or of two
+ * servers that both want port 8080) can no longer spawn duplicate JBoss processes, while servers on
+ * different ports proceed in parallel. Registration happens under striped locks taken in index
+ * order; the operation itself runs outside any lock.
+ *
+ * A request identical to the one in flight (same type, server and port) joins it and gets the
+ * same result. Any other conflicting request is rejected, or queued behind the in-flight one.
+ */
+@Service
+public class ServerOperationCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerOperationCoordinator.class);
+
+    private static final int STRIPES = 64;
+
+    public enum OperationType {
+        START, STOP, FORCE_STOP, DRAIN, RESTART
+    }
+
+    public enum ConflictPolicy {
+        REJECT, QUEUE
+    }
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ConcurrentHashMap<String, InFlightOperation> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+
+    public ServerOperationCoordinator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private static final class InFlightOperation {
+        final OperationType type;
+        final String serverName;
+        final int port;
+        final long submittedAt = System.currentTimeMillis();
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        InFlightOperation(OperationType type, String serverName, int port) {
+            this.type = type;
+            this.serverName = serverName;
+            this.port = port;
+        }
+
+        boolean sameAs(OperationType type, String serverName, int port) {
+            return this.type == type && this.port == port && Objects.equals(this.serverName, serverName);
+        }
+
+        String describe() {
+            return type + " of " + (serverName != null ? "'" + serverName + "'" : "server") + " on port " + port;
+        }
+    }
+
+    /**
+     * Run the operation once no conflicting operation is in flight for the server or its port
+     *
+     * @param serverName server directory name, or null when only the port is known
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(OperationType type, String serverName, int port, ConflictPolicy policy,
+                         Callable<T> work) throws Exception {
+        List<String> keys = keysFor(serverName, port);
+        InFlightOperation operation = null;
+        InFlightOperation joined = null;
+        List<CompletableFuture<Object>> predecessors = new ArrayList<>();
+
+        List<ReentrantLock> locks = lockStripes(keys);
+        try {
+            Set<InFlightOperation> existing = new LinkedHashSet<>();
+            for (String key : keys) {
+                InFlightOperation current = inFlight.get(key);
+                if (current != null) {
+                    existing.add(current);
+                }
+            }
+
+            if (existing.size() == 1 && existing.iterator().next().sameAs(type, serverName, port)) {
+                joined = existing.iterator().next();
+            } else if (!existing.isEmpty()) {
+                String busy = existing.stream().map(InFlightOperation::describe).toList().toString();
+                if (policy == ConflictPolicy.REJECT) {
+                    rejected.incrementAndGet();
+                    throw new ServerOperationConflictException("Cannot " + type.name().toLowerCase().replace('_', ' ')
+                            + " now: " + busy + " is already in progress");
+                }
+                queued.incrementAndGet();
+                logger.info("Queueing {} of '{}' on port {} behind {}", type, serverName, port, busy);
+                existing.forEach(op -> predecessors.add(op.result));
+            }
+
+            if (joined == null) {
+                operation = new InFlightOperation(type, serverName, port);
+                for (String key : keys) {
+                    inFlight.put(key, operation);
+                }
+            }
+        } finally {
+            unlock(locks);
+        }
+
+        if (joined != null) {
+            collapsed.incrementAndGet();
+            logger.info("Joining in-flight {}", joined.describe());
+            return (T) await(joined.result);
+        }
+
+        try {
+            for (CompletableFuture<Object> predecessor : predecessors) {
+                // Outcome of the earlier operation does not matter, only that it has finished
+                predecessor.handle((r, e) -> null).get();
+            }
+            executed.incrementAndGet();
+            T value = work.call();
+            operation.result.complete(value);
+            return value;
+        } catch (Exception e) {
+            operation.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            for (String key : keys) {
+                inFlight.remove(key, operation);
+            }
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<String> keysFor(String serverName, int port) {
+        List<String> keys = new ArrayList<>();
+        if (serverName != null) {
+            keys.add("server:" + serverName);
+        }
+        keys.add("port:" + port);
+        return keys;
+    }
+
+    /**
+     * Lock the stripes for all keys in ascending index order so two operations can never deadlock
+     */
+    private List<ReentrantLock> lockStripes(List<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            indexes.add(Math.floorMod(key.hashCode(), STRIPES));
+        }
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    private void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    public List<Map<String, Object>> listInFlight() {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        inFlight.values().stream().distinct().forEach(op -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("type", op.type);
+            entry.put("server_name", op.serverName);
+            entry.put("port", op.port);
+            entry.put("running_ms", System.currentTimeMillis() - op.submittedAt);
+            operations.add(entry);
+        });
+        return operations;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executed", executed.get());
+        stats.put("collapsed", collapsed.get());
+        stats.put("queued", queued.get());
+        stats.put("rejected", rejected.get());
+        stats.put("in_flight", listInFlight());
+        return stats;
+    }
+}
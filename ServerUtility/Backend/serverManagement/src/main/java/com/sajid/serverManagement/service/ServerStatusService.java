@@ -6,6 +6,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.Socket;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
 
 @Service
 public class ServerStatusService {
@@ -104,6 +106,28 @@ public class ServerStatusService {
         }
     }
 
+    /**
+     * PID of a Java process started from inside the folder (a JBoss command line names its home
+     * directory), or null when none is running from it
+     */
+    public Long findProcessRunningFrom(Path directory) {
+        String folder = directory.toAbsolutePath().normalize().toString();
+        // The folder itself or something inside it, not a sibling that merely shares the prefix
+        Pattern inside = Pattern.compile(Pattern.quote(folder) + "([\\\\/\"'\\s]|$)");
+        long self = ProcessHandle.current().pid();
+        return ProcessHandle.allProcesses()
+                .filter(process -> process.pid() != self)
+                .filter(process -> process.info().command().map(command -> command.toLowerCase().contains("java")).orElse(false))
+                .filter(process -> {
+                    // Windows does not report the arguments of other processes to ProcessHandle
+                    String commandLine = process.info().commandLine().orElseGet(() -> getProcessCommandLine(process.pid()));
+                    return commandLine != null && inside.matcher(commandLine).find();
+                })
+                .map(ProcessHandle::pid)
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Get the working directory of a process by PID
      */
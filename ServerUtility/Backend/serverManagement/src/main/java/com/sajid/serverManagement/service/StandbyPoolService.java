@@ -0,0 +1,379 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.StandbyInstance;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps N server directories pre-extracted (and optionally pre-booted on spare port offsets) from a
+ * configured build archive, so switching to that build is a rename instead of a multi-GB extraction
+ * and a cold boot. Refill runs in the background on a bounded extraction executor.
+ *
+ * State changes go through the pool's lock, as promote does. A failed instance is deleted and the
+ * pool refilled after a backoff that grows with consecutive failures.
+ */
+@Service
+public class StandbyPoolService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandbyPoolService.class);
+
+    private static final String INSTANCE_PREFIX = "standby-";
+    private static final String READY_MARKER = ".standby-ready";
+
+    private static final long RETRY_DELAY_SECONDS = 5;
+    private static final long MAX_RETRY_DELAY_SECONDS = 600;
+
+    private final ConcurrentHashMap<String, StandbyInstance> instances = new ConcurrentHashMap<>();
+
+    // Guarded by the service's monitor
+    private int consecutiveFailures;
+    private String lastFailure;
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private ServerControlService controlService;
+
+    @Autowired
+    private ServerStatusService statusService;
+
+    @Autowired
+    @Qualifier("standbyExtractionExecutor")
+    private Executor extractionExecutor;
+
+    @Value("${server.base-path}")
+    private String basePath;
+
+    @Value("${server.prefix}")
+    private String prefix;
+
+    @Value("${standby.pool.size:0}")
+    private int poolSize;
+
+    @Value("${standby.pool.source-zip:}")
+    private String sourceZip;
+
+    @Value("${standby.pool.directory:}")
+    private String poolDirectory;
+
+    @Value("${standby.pool.preboot:false}")
+    private boolean preboot;
+
+    @Value("${standby.pool.port-offset-base:100}")
+    private int portOffsetBase;
+
+    @Value("${standby.pool.port-offset-step:100}")
+    private int portOffsetStep;
+
+    @PostConstruct
+    public void initialize() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            adoptExistingInstances();
+        } catch (IOException e) {
+            logger.warn("Could not scan standby pool directory {}: {}", poolDir(), e.getMessage());
+        }
+        refill();
+    }
+
+    public boolean isEnabled() {
+        return poolSize > 0 && !sourceZip.isBlank();
+    }
+
+    /**
+     * Pick up instances extracted before a restart; only fully extracted ones carry the ready marker
+     */
+    private void adoptExistingInstances() throws IOException {
+        Path dir = poolDir();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, INSTANCE_PREFIX + "*")) {
+            for (Path candidate : stream) {
+                if (Files.exists(candidate.resolve(READY_MARKER))) {
+                    String id = candidate.getFileName().toString().substring(INSTANCE_PREFIX.length());
+                    StandbyInstance instance = new StandbyInstance(id, candidate.toString(), sourceZip,
+                            nextPortOffset(), StandbyInstance.State.READY);
+                    instance.setReadyTime(Files.getLastModifiedTime(candidate.resolve(READY_MARKER)).toMillis());
+                    instance.setMessage("Adopted from previous run");
+                    instances.put(id, instance);
+                    logger.info("Adopted standby instance {}", candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Top the pool up to the configured size; extraction happens in the background
+     */
+    public synchronized int refill() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        releaseStoppedPromotions();
+        long active = instances.values().stream().filter(StandbyInstance::isAvailableOrPending).count();
+        int missing = (int) Math.max(0, poolSize - active);
+
+        for (int i = 0; i < missing; i++) {
+            String id = UUID.randomUUID().toString().substring(0, 8);
+            Path target = poolDir().resolve(INSTANCE_PREFIX + id);
+            StandbyInstance instance = new StandbyInstance(id, target.toString(), sourceZip, nextPortOffset(),
+                    StandbyInstance.State.EXTRACTING);
+            instances.put(id, instance);
+
+            CompletableFuture.runAsync(() -> prepare(instance), extractionExecutor)
+                    .whenComplete((result, exception) -> {
+                        if (exception != null) {
+                            failed(instance, exception);
+                        }
+                    });
+        }
+
+        if (missing > 0) {
+            logger.info("Refilling standby pool with {} instance(s) from {}", missing, sourceZip);
+        }
+        return missing;
+    }
+
+    private void prepare(StandbyInstance instance) {
+        try {
+            Path target = Paths.get(instance.getPath());
+            fileUploadService.extractZipFile(sourceZip, target);
+            Files.createFile(target.resolve(READY_MARKER));
+
+            // Only published as READY once nothing else will happen to it, so promote never picks
+            // an instance that is still being booted
+            if (!preboot) {
+                transition(instance, StandbyInstance.State.EXTRACTING, StandbyInstance.State.READY, "Extracted");
+                return;
+            }
+            if (!transition(instance, StandbyInstance.State.EXTRACTING, StandbyInstance.State.BOOTING,
+                    "Extracted; booting on port " + instance.getHttpPort())) {
+                return;
+            }
+            controlService.startServer(instance.getPath(), instance.getPortOffset());
+            if (controlService.awaitPortBound(instance.getHttpPort())) {
+                transition(instance, StandbyInstance.State.BOOTING, StandbyInstance.State.WARM,
+                        "Booted on port " + instance.getHttpPort());
+            } else {
+                transition(instance, StandbyInstance.State.BOOTING, StandbyInstance.State.READY,
+                        "Extracted; pre-boot did not bind port " + instance.getHttpPort());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing standby instance", e);
+        }
+    }
+
+    /**
+     * Move the instance on only if it is still in the expected state; taken under the pool's lock,
+     * like promote, so a promoted instance is never set back
+     */
+    private synchronized boolean transition(StandbyInstance instance, StandbyInstance.State expected,
+                                            StandbyInstance.State next, String message) {
+        if (instance.getState() != expected) {
+            logger.warn("Standby instance {} is {}, not moving it from {} to {}", instance.getId(),
+                    instance.getState(), expected, next);
+            return false;
+        }
+        if (next == StandbyInstance.State.READY || next == StandbyInstance.State.WARM) {
+            instance.setReadyTime(System.currentTimeMillis());
+            consecutiveFailures = 0;
+        }
+        instance.setMessage(message);
+        instance.setState(next);
+        return true;
+    }
+
+    /**
+     * Drop a failed instance and its directory, then try again once the backoff has passed
+     */
+    private void failed(StandbyInstance instance, Throwable exception) {
+        Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        logger.error("Standby instance {} failed: {}", instance.getId(), cause.getMessage(), cause);
+        long delaySeconds;
+        synchronized (this) {
+            instance.setState(StandbyInstance.State.FAILED);
+            instance.setMessage("Preparation failed: " + cause.getMessage());
+            instances.remove(instance.getId());
+            lastFailure = instance.getId() + ": " + cause.getMessage();
+            consecutiveFailures++;
+            delaySeconds = Math.min(MAX_RETRY_DELAY_SECONDS, RETRY_DELAY_SECONDS << Math.min(consecutiveFailures - 1, 10));
+        }
+        try {
+            deleteRecursively(Paths.get(instance.getPath()));
+        } catch (IOException e) {
+            logger.warn("Could not delete failed standby instance {}: {}", instance.getPath(), e.getMessage());
+        }
+        // Backed off, so a broken source archive does not spin the executor
+        logger.info("Refilling the standby pool in {}s", delaySeconds);
+        CompletableFuture.runAsync(this::refill,
+                CompletableFuture.delayedExecutor(delaySeconds, TimeUnit.SECONDS, extractionExecutor));
+    }
+
+    private void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Hand a standby instance over as the active server.
+     * A pre-booted instance is already serving on its offset port and is reported as-is (a running
+     * tree cannot be renamed); a cold instance is renamed into the base path under the given server
+     * name, where the scanner picks it up like any other server.
+     */
+    public synchronized StandbyInstance promote(String serverName) throws IOException {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Standby pool is not configured");
+        }
+        if (serverName == null || !serverName.startsWith(prefix)) {
+            throw new IllegalArgumentException("Server name must start with '" + prefix + "'");
+        }
+
+        Path destination = Paths.get(basePath).resolve(serverName);
+        if (!destination.normalize().startsWith(Paths.get(basePath).normalize()) || serverName.contains("/")
+                || serverName.contains("\\")) {
+            throw new IllegalArgumentException("Invalid server name: " + serverName);
+        }
+
+        Optional<StandbyInstance> candidate = pick(StandbyInstance.State.WARM).or(() -> pick(StandbyInstance.State.READY));
+        if (candidate.isEmpty()) {
+            throw new IllegalStateException("No standby instance is ready yet");
+        }
+        StandbyInstance instance = candidate.get();
+
+        boolean warm = instance.getState() == StandbyInstance.State.WARM;
+        if (warm) {
+            instance.setMessage("Active on port " + instance.getHttpPort() + " from " + instance.getPath());
+        } else {
+            if (Files.exists(destination)) {
+                throw new IllegalArgumentException("Server '" + serverName + "' already exists");
+            }
+            Path source = Paths.get(instance.getPath());
+            Files.deleteIfExists(source.resolve(READY_MARKER));
+            try {
+                Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                logger.warn("Standby directory is on another filesystem, falling back to a non-atomic move");
+                Files.move(source, destination);
+            }
+            instance.setPath(destination.toString());
+            instance.setMessage("Renamed to " + destination);
+        }
+
+        instance.setPromotedAs(serverName);
+        instance.setState(StandbyInstance.State.PROMOTED);
+        logger.info("Promoted standby instance {} as {}", instance.getId(), serverName);
+        if (!warm) {
+            // Now an ordinary server under the base path; nothing left for the pool to track
+            instances.remove(instance.getId());
+        }
+
+        refill();
+        return instance;
+    }
+
+    private Optional<StandbyInstance> pick(StandbyInstance.State state) {
+        return instances.values().stream()
+                .filter(i -> i.getState() == state)
+                .min(Comparator.comparingLong(StandbyInstance::getReadyTime));
+    }
+
+    /**
+     * Lowest offset not held by an instance that is (or may be) running; promoted instances left in
+     * the pool are warm ones still serving from it
+     */
+    private int nextPortOffset() {
+        Set<Integer> used = new HashSet<>();
+        for (StandbyInstance instance : instances.values()) {
+            if (instance.isAvailableOrPending() || instance.getState() == StandbyInstance.State.PROMOTED) {
+                used.add(instance.getPortOffset());
+            }
+        }
+        int offset = portOffsetBase;
+        while (used.contains(offset)) {
+            offset += portOffsetStep;
+        }
+        return offset;
+    }
+
+    /**
+     * Let go of warm promotions whose server has stopped, which frees their port offsets
+     */
+    private synchronized void releaseStoppedPromotions() {
+        instances.values().removeIf(instance -> {
+            if (instance.getState() != StandbyInstance.State.PROMOTED || statusService.isPortInUse(instance.getHttpPort())) {
+                return false;
+            }
+            logger.info("Promoted standby instance {} ({}) is no longer running, releasing port offset {}",
+                    instance.getId(), instance.getPromotedAs(), instance.getPortOffset());
+            return true;
+        });
+    }
+
+    private Path poolDir() {
+        return poolDirectory.isBlank() ? Paths.get(basePath).resolve("Standby") : Paths.get(poolDirectory);
+    }
+
+    public List<StandbyInstance> listInstances() {
+        releaseStoppedPromotions();
+        return instances.values().stream()
+                .sorted(Comparator.comparingLong(StandbyInstance::getCreatedTime))
+                .toList();
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("enabled", isEnabled());
+        pool.put("target_size", poolSize);
+        pool.put("source_zip", sourceZip);
+        pool.put("directory", poolDir().toString());
+        pool.put("preboot", preboot);
+        pool.put("ready", instances.values().stream()
+                .filter(i -> i.getState() == StandbyInstance.State.READY || i.getState() == StandbyInstance.State.WARM)
+                .count());
+        synchronized (this) {
+            pool.put("consecutive_failures", consecutiveFailures);
+            pool.put("last_failure", lastFailure);
+        }
+        pool.put("instances", listInstances());
+        return pool;
+    }
+}
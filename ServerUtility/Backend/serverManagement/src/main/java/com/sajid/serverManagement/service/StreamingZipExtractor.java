@@ -0,0 +1,265 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.ExtractionResult;
+import com.sajid.serverManagement.dto.StreamExtractionResult;
+import com.sajid.serverManagement.util.ArchiveFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Inflates a ZIP while it is still being received, reading local headers from the request body
+ * instead of spooling the upload to disk first. An optional tee writes the raw bytes to the archive
+ * copy on the way through, so keeping the zip costs one sequential write instead of a copy and a
+ * second read.
+ *
+ * Streaming cannot see the central directory, so STORED entries written with a data descriptor
+ * are unreadable here; when the archive copy is being kept, such uploads fall back to the parallel
+ * extractor once the copy is complete. Tarballs are streamed by {@link TarExtractor}, which never
+ * needs the fallback.
+ *
+ * The folder is reserved with the {@link ExtractionPipeline} for the whole stream, so no other
+ * extraction swaps it meanwhile. Once the stream is complete, files the previous archive wrote and
+ * this one lacks are deleted and the manifest is rewritten.
+ */
+@Component
+public class StreamingZipExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingZipExtractor.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int TEE_BUFFER_SIZE = 256 * 1024;
+
+    @Autowired
+    private ExtractionPipeline extractionPipeline;
+
+    @Autowired
+    private TarExtractor tarExtractor;
+
+    /**
+     * @param archiveCopy   where to keep the raw archive, or null to discard it
+     * @param contentLength declared body size for tar progress, or -1
+     * @param maxBytes      upload size limit; raw bodies are not covered by the multipart limits
+     */
+    public StreamExtractionResult extract(InputStream body, ArchiveFormat format, Path extractionDir, Path archiveCopy,
+                                          long contentLength, long maxBytes) throws IOException {
+        Path root = extractionPipeline.reserve(extractionDir);
+        boolean reserved = true;
+        try {
+            long started = System.currentTimeMillis();
+            Files.createDirectories(root);
+            Map<String, ExtractionManifest.Entry> previous = ExtractionManifest.load(root);
+
+            // Unique, so two uploads of the same archive do not tee into one file
+            Path partial = archiveCopy == null ? null
+                    : archiveCopy.resolveSibling("." + archiveCopy.getFileName() + "." + UUID.randomUUID() + ".part");
+            StreamExtractionResult result = new StreamExtractionResult();
+            boolean streamed = true;
+
+            try (CountingTeeInputStream source = new CountingTeeInputStream(new BufferedInputStream(body, READ_BUFFER_SIZE),
+                    partial == null ? null : new BufferedOutputStream(Files.newOutputStream(partial), TEE_BUFFER_SIZE), maxBytes)) {
+                try {
+                    if (format.isTar()) {
+                        // Rewrites the manifest itself
+                        ExtractionOptions options = ExtractionOptions.defaults();
+                        options.setDeleteOrphans(true);
+                        ParallelZipExtractor.Progress progress = tarExtractor.extract(source, format, root, contentLength,
+                                options, ParallelZipExtractor.ProgressListener.NONE);
+                        result.setEntries(progress.getTotalEntries());
+                        result.setBytesWritten(progress.getBytesWritten());
+                    } else {
+                        // Files of the previous extraction go once the stream is complete; until
+                        // then no manifest claims the mixed tree
+                        Files.deleteIfExists(root.resolve(ExtractionManifest.FILE_NAME));
+                        Map<String, ExtractionManifest.Entry> extracted = extractEntries(new ZipInputStream(source), root, result);
+                        deleteOrphans(root, previous, extracted);
+                        ExtractionManifest.write(root, extracted);
+                    }
+                } catch (ZipException e) {
+                    if (partial == null) {
+                        throw e;
+                    }
+                    logger.warn("Archive cannot be streamed ({}), extracting from the kept copy instead", e.getMessage());
+                    // Lets the fallback replace the previous extraction as a whole
+                    if (!previous.isEmpty()) {
+                        ExtractionManifest.write(root, previous);
+                    }
+                    streamed = false;
+                }
+                // The central directory follows the last entry; read it too so the kept copy is complete
+                source.drain();
+                result.setBytesReceived(source.getCount());
+            } catch (IOException | RuntimeException e) {
+                if (partial != null) {
+                    Files.deleteIfExists(partial);
+                }
+                throw e;
+            }
+
+            if (partial != null) {
+                Files.move(partial, archiveCopy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                result.setArchivePath(archiveCopy.toString());
+            }
+
+            if (!streamed) {
+                // The pipeline takes the folder over with its own reservation
+                extractionPipeline.release(root);
+                reserved = false;
+                ExtractionResult fallback = extractionPipeline.extract(archiveCopy, root, ExtractionOptions.defaults(),
+                        ParallelZipExtractor.ProgressListener.NONE);
+                result.setEntries(fallback.getTotalEntries());
+                result.setBytesWritten(fallback.getBytesWritten());
+                result.setFallbackUsed(true);
+            }
+
+            result.setExtractionPath(root.toString());
+            result.setDurationMs(System.currentTimeMillis() - started);
+            logger.info("Stream-extracted {} entries ({} bytes from {} received) into {} in {} ms",
+                    result.getEntries(), result.getBytesWritten(), result.getBytesReceived(), root, result.getDurationMs());
+            return result;
+        } finally {
+            if (reserved) {
+                extractionPipeline.release(root);
+            }
+        }
+    }
+
+    private Map<String, ExtractionManifest.Entry> extractEntries(ZipInputStream zis, Path root,
+                                                                 StreamExtractionResult result) throws IOException {
+        Map<String, ExtractionManifest.Entry> extracted = new HashMap<>();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            Path target = root.resolve(entry.getName()).normalize();
+
+            // Security check to prevent zip slip attacks
+            if (!target.startsWith(root)) {
+                throw new IOException("Bad zip entry: " + entry.getName());
+            }
+
+            if (entry.isDirectory()) {
+                Files.createDirectories(target);
+            } else {
+                Files.createDirectories(target.getParent());
+                long size = 0;
+                try (OutputStream out = Files.newOutputStream(target)) {
+                    int len;
+                    while ((len = zis.read(buffer)) > 0) {
+                        out.write(buffer, 0, len);
+                        size += len;
+                        result.setBytesWritten(result.getBytesWritten() + len);
+                    }
+                }
+                // CRC and size are known once the entry has been read to its end
+                Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getTime()));
+                extracted.put(entry.getName(), new ExtractionManifest.Entry(entry.getCrc(), size, entry.getTime()));
+            }
+            result.setEntries(result.getEntries() + 1);
+        }
+        return extracted;
+    }
+
+    /**
+     * Files the previous extraction wrote that this archive no longer has; anything else in the
+     * folder did not come from an archive and stays
+     */
+    private void deleteOrphans(Path root, Map<String, ExtractionManifest.Entry> previous,
+                               Map<String, ExtractionManifest.Entry> extracted) throws IOException {
+        int deleted = 0;
+        for (String name : previous.keySet()) {
+            Path file = root.resolve(name).normalize();
+            if (!extracted.containsKey(name) && file.startsWith(root) && Files.deleteIfExists(file)) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} files of the previous extraction from {}", deleted, root);
+        }
+    }
+
+    /**
+     * Counts what is read, enforces the size limit and copies every byte to the optional tee
+     */
+    private static final class CountingTeeInputStream extends FilterInputStream {
+        private final OutputStream tee;
+        private final long maxBytes;
+        private long count;
+
+        CountingTeeInputStream(InputStream in, OutputStream tee, long maxBytes) {
+            super(in);
+            this.tee = tee;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copied(1);
+                if (tee != null) {
+                    tee.write(b);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                copied(n);
+                if (tee != null) {
+                    tee.write(b, off, n);
+                }
+            }
+            return n;
+        }
+
+        private void copied(int n) throws IOException {
+            count += n;
+            if (count > maxBytes) {
+                throw new IOException("Upload exceeds maximum allowed size of " + maxBytes + " bytes");
+            }
+        }
+
+        void drain() throws IOException {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // Counted and teed by read()
+            }
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (tee != null) {
+                    tee.close();
+                }
+            }
+        }
+    }
+}
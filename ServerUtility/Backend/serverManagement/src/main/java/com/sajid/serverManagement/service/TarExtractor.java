@@ -0,0 +1,252 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ArchiveFormat;
+import io.airlift.compress.zstd.ZstdInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Extracts {@code .tar}, {@code .tar.gz} and {@code .tar.zst} archives as one sequential stream,
+ * from a file or straight from an upload body. Zstandard is decoded in pure Java (aircompressor),
+ * gzip by the JDK's zlib.
+ *
+ * A tarball has no central directory, so there is nothing to hand out to parallel workers, the
+ * totals grow as entries are read and progress follows the archive bytes consumed. The same rules
+ * as for ZIPs apply otherwise: every entry must resolve inside the extraction directory, the entry
+ * filter is honoured, and a manifest (with the CRC computed while writing) is left for the staged
+ * swap and orphan cleanup. Incremental runs, resume and content store dedupe are not available:
+ * every file is written.
+ * Regular files, directories and hard links to earlier entries are extracted; symbolic links and
+ * special files are skipped.
+ */
+@Component
+public class TarExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TarExtractor.class);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000L;
+
+    public ParallelZipExtractor.Progress extract(Path archive, ArchiveFormat format, Path extractionDir,
+                                                 ExtractionOptions options,
+                                                 ParallelZipExtractor.ProgressListener listener) throws IOException {
+        try (InputStream in = Files.newInputStream(archive)) {
+            return extract(in, format, extractionDir, Files.size(archive), options, listener);
+        }
+    }
+
+    /**
+     * @param archiveSize compressed size the percentage is based on, or -1 when it is not known
+     */
+    public ParallelZipExtractor.Progress extract(InputStream archive, ArchiveFormat format, Path extractionDir,
+                                                 long archiveSize, ExtractionOptions options,
+                                                 ParallelZipExtractor.ProgressListener listener) throws IOException {
+        Path root = extractionDir.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        long started = System.currentTimeMillis();
+
+        ParallelZipExtractor.Progress progress = ParallelZipExtractor.Progress.streaming(archiveSize);
+        EntryFilter filter = options.getEntryFilter();
+        ExtractionControl control = options.getControl();
+        Map<String, ExtractionManifest.Entry> previous = ExtractionManifest.load(root);
+        Map<String, ExtractionManifest.Entry> extracted = new HashMap<>();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        CRC32 crc = new CRC32();
+        long nextReport = System.nanoTime();
+        int filesWritten = 0;
+        int unsupported = 0;
+
+        listener.onProgress(progress);
+        InputStream counted = new CountingInputStream(new BufferedInputStream(archive, BUFFER_SIZE), progress);
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(decompress(format, counted),
+                StandardCharsets.UTF_8.name())) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextEntry()) != null) {
+                control.checkpoint();
+                String name = normalize(entry.getName());
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!filter.accept(name)) {
+                    progress.streamedSkip(entry.isDirectory() ? 0 : entry.getSize());
+                    continue;
+                }
+
+                Path target = resolve(root, name);
+                if (entry.isDirectory()) {
+                    progress.streamed(name, 0);
+                    Files.createDirectories(target);
+                } else if (entry.isLink()) {
+                    // Hard link to an entry earlier in the archive; copied so editing one does not change both
+                    String linkName = normalize(entry.getLinkName());
+                    Path source = resolve(root, linkName);
+                    ExtractionManifest.Entry linked = extracted.get(linkName);
+                    if (linked == null && !filter.accept(linkName)) {
+                        progress.streamedSkip(0);
+                        continue;
+                    }
+                    if (linked == null) {
+                        throw new IOException("Bad tar entry: " + entry.getName() + " links to " + entry.getLinkName()
+                                + ", which was not extracted");
+                    }
+                    progress.streamed(name, linked.size());
+                    Files.createDirectories(target.getParent());
+                    Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    progress.wrote(linked.size());
+                    extracted.put(name, linked);
+                    filesWritten++;
+                } else if (entry.isSymbolicLink() || entry.isCharacterDevice() || entry.isBlockDevice() || entry.isFIFO()) {
+                    unsupported++;
+                    continue;
+                } else {
+                    progress.streamed(name, entry.getSize());
+                    Files.createDirectories(target.getParent());
+                    write(tar, target, buffer, crc, progress, control);
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getModTime().getTime()));
+                    extracted.put(name, new ExtractionManifest.Entry(crc.getValue(), entry.getSize(),
+                            entry.getModTime().getTime()));
+                    filesWritten++;
+                }
+                progress.entryDone();
+
+                long now = System.nanoTime();
+                if (now - nextReport >= 0) {
+                    nextReport = now + PROGRESS_INTERVAL_NANOS;
+                    listener.onProgress(progress);
+                }
+            }
+        }
+        if (unsupported > 0) {
+            logger.warn("Skipped {} symbolic links and special files in tar archive", unsupported);
+        }
+
+        int deletedOrphans = 0;
+        Map<String, ExtractionManifest.Entry> manifest = new HashMap<>(extracted);
+        for (Map.Entry<String, ExtractionManifest.Entry> recorded : previous.entrySet()) {
+            String name = recorded.getKey();
+            if (!filter.accept(name)) {
+                // A filtered run keeps the records of files it was not asked to touch
+                manifest.put(name, recorded.getValue());
+            } else if (options.isDeleteOrphans() && !extracted.containsKey(name) && Files.deleteIfExists(resolve(root, name))) {
+                deletedOrphans++;
+            }
+        }
+        ExtractionManifest.write(root, manifest);
+        progress.finish(filesWritten, deletedOrphans);
+        listener.onProgress(progress);
+
+        logger.info("Extracted {} entries ({} files, {} bytes, {} orphans deleted) from {} tar stream in {} ms",
+                progress.getTotalEntries(), filesWritten, progress.getBytesWritten(), deletedOrphans, format,
+                System.currentTimeMillis() - started);
+        return progress;
+    }
+
+    private void write(InputStream in, Path target, byte[] buffer, CRC32 crc, ParallelZipExtractor.Progress progress,
+                       ExtractionControl control) throws IOException {
+        crc.reset();
+        // Never write through a hardlink the content store may have left here
+        Files.deleteIfExists(target);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+                crc.update(buffer, 0, n);
+                progress.wrote(n);
+                control.checkpoint();
+            }
+        }
+    }
+
+    private InputStream decompress(ArchiveFormat format, InputStream in) throws IOException {
+        return switch (format) {
+            case TAR -> in;
+            case TAR_GZ -> new GZIPInputStream(in, BUFFER_SIZE);
+            case TAR_ZST -> new ZstdInputStream(in);
+            case ZIP -> throw new IllegalArgumentException("Not a tar archive: " + format);
+        };
+    }
+
+    /**
+     * Tar paths are often written as "./dir/file"; the manifest and the filter use "dir/file"
+     */
+    private String normalize(String entryName) {
+        String name = entryName.replace('\\', '/');
+        while (name.startsWith("./")) {
+            name = name.substring(2);
+        }
+        return name.equals(".") ? "" : name;
+    }
+
+    /**
+     * Zip slip protection: every entry, and every hard link source, must stay inside the extraction directory
+     */
+    private Path resolve(Path root, String entryName) throws IOException {
+        Path target = root.resolve(entryName).normalize();
+        if (!target.startsWith(root)) {
+            throw new IOException("Bad tar entry: " + entryName);
+        }
+        return target;
+    }
+
+    /**
+     * Counts the archive bytes consumed, before decompression, for the percentage. Closing the tar
+     * stream releases the decoder but stops here: the caller owns the archive stream, and the
+     * upload path still reads the rest of the body after the end of the tar.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ParallelZipExtractor.Progress progress;
+
+        CountingInputStream(InputStream in, ParallelZipExtractor.Progress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                progress.archiveRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                progress.archiveRead(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            progress.archiveRead(skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // Closed by the caller
+        }
+    }
+}
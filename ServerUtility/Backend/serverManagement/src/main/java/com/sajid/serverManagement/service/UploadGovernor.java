@@ -0,0 +1,296 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.UploadActivity;
+import com.sajid.serverManagement.exception.UploadLimitExceededException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps archive uploads from starving the servers on the same host. At most max-concurrent uploads
+ * run at a time and the next one is refused (429 with a Retry-After estimated from the running
+ * ones) rather than queued, since a queued upload would still hold a connection. The chunk
+ * requests of one chunked upload share a single slot.
+ *
+ * Admitted bodies are read through {@link Ticket#throttle}, which charges every read against a
+ * token bucket of the upload and one shared by all uploads, and sleeps off any debt, so each upload
+ * and their sum stay under the configured rates. Counters per upload are kept for the activity view.
+ */
+@Component
+public class UploadGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadGovernor.class);
+
+    private static final long MB = 1024 * 1024;
+    // Largest read charged at once, so throttled uploads wait in small steps
+    private static final int READ_SLICE = 64 * 1024;
+    private static final int MAX_RETRY_AFTER_SECONDS = 300;
+
+    @Value("${upload.governor.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${upload.governor.per-upload-mb-per-second:0}")
+    private long perUploadMbPerSecond;
+
+    @Value("${upload.governor.total-mb-per-second:0}")
+    private long totalMbPerSecond;
+
+    @Value("${upload.governor.retry-after-seconds:10}")
+    private int retryAfterSeconds;
+
+    // Guarded by the governor's monitor
+    private final Map<String, Upload> uploads = new LinkedHashMap<>();
+    private TokenBucket totalBucket;
+
+    @PostConstruct
+    public void init() {
+        totalBucket = totalMbPerSecond > 0 ? new TokenBucket(totalMbPerSecond * MB) : null;
+        logger.info("Upload governor: {} concurrent uploads, {} MB/s per upload, {} MB/s in total (0 = unlimited)",
+                maxConcurrent, perUploadMbPerSecond, totalMbPerSecond);
+    }
+
+    /**
+     * Admit a request carrying an upload body. Requests with the id of a running upload join it.
+     *
+     * @param contentLength declared body size, or -1
+     * @param shaped        false when the body is read by the container and cannot be throttled
+     * @throws UploadLimitExceededException when max-concurrent uploads are already running
+     */
+    public synchronized Ticket admit(String uploadId, String path, String fileName, long contentLength, boolean shaped) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            if (maxConcurrent > 0 && uploads.size() >= maxConcurrent) {
+                throw new UploadLimitExceededException("Too many uploads in progress (" + uploads.size()
+                        + "), try again later", uploads.size(), estimateRetryAfter());
+            }
+            upload = new Upload(uploadId, path, fileName, shaped,
+                    perUploadMbPerSecond > 0 ? new TokenBucket(perUploadMbPerSecond * MB) : null);
+            uploads.put(uploadId, upload);
+        }
+        upload.requests++;
+        if (contentLength >= 0) {
+            upload.contentLength = Math.max(upload.contentLength, 0) + contentLength;
+        }
+        return new Ticket(upload);
+    }
+
+    public synchronized List<UploadActivity> activeUploads() {
+        long now = System.currentTimeMillis();
+        List<UploadActivity> activities = new ArrayList<>();
+        for (Upload upload : uploads.values()) {
+            activities.add(upload.snapshot(now));
+        }
+        return activities;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getPerUploadMbPerSecond() {
+        return perUploadMbPerSecond;
+    }
+
+    public long getTotalMbPerSecond() {
+        return totalMbPerSecond;
+    }
+
+    private synchronized void release(Upload upload) {
+        if (--upload.requests == 0) {
+            uploads.remove(upload.id);
+        }
+    }
+
+    /**
+     * Seconds until the running upload closest to done should finish at its average rate, or the
+     * configured default when none declared its size
+     */
+    private int estimateRetryAfter() {
+        long now = System.currentTimeMillis();
+        double best = Double.MAX_VALUE;
+        for (Upload upload : uploads.values()) {
+            long bytes = upload.bytes.get();
+            long elapsedMs = now - upload.startTime;
+            if (upload.contentLength > bytes && bytes > 0 && elapsedMs > 0) {
+                best = Math.min(best, (upload.contentLength - bytes) / (bytes * 1000.0 / elapsedMs));
+            }
+        }
+        if (best == Double.MAX_VALUE) {
+            return retryAfterSeconds;
+        }
+        return (int) Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, Math.ceil(best)));
+    }
+
+    /**
+     * One admitted request; closing it frees the upload's slot once its last request is done
+     */
+    public final class Ticket implements AutoCloseable {
+
+        private final Upload upload;
+        private boolean closed;
+
+        private Ticket(Upload upload) {
+            this.upload = upload;
+        }
+
+        /**
+         * The request body, counted and held to the bandwidth caps
+         */
+        public InputStream throttle(InputStream body) {
+            return new ShapedInputStream(body, upload);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(upload);
+            }
+        }
+    }
+
+    private static final class Upload {
+        private final String id;
+        private final String path;
+        private final String fileName;
+        private final boolean shaped;
+        private final TokenBucket bucket;
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong throttledMs = new AtomicLong();
+        // Guarded by the governor's monitor
+        private int requests;
+        private long contentLength = -1;
+        // Guarded by the upload's monitor
+        private long windowStart = startTime;
+        private long windowBytes;
+        private double currentMbPerSecond;
+
+        private Upload(String id, String path, String fileName, boolean shaped, TokenBucket bucket) {
+            this.id = id;
+            this.path = path;
+            this.fileName = fileName;
+            this.shaped = shaped;
+            this.bucket = bucket;
+        }
+
+        private void received(int n) {
+            bytes.addAndGet(n);
+            synchronized (this) {
+                windowBytes += n;
+                long now = System.currentTimeMillis();
+                if (now - windowStart >= 1000) {
+                    currentMbPerSecond = windowBytes * 1000.0 / (now - windowStart) / MB;
+                    windowStart = now;
+                    windowBytes = 0;
+                }
+            }
+        }
+
+        private UploadActivity snapshot(long now) {
+            UploadActivity activity = new UploadActivity();
+            activity.setUploadId(id);
+            activity.setPath(path);
+            activity.setFileName(fileName);
+            activity.setContentLength(contentLength);
+            activity.setBytesReceived(bytes.get());
+            activity.setStartTime(startTime);
+            activity.setElapsedMs(now - startTime);
+            activity.setAverageMbPerSecond(bytes.get() * 1000.0 / Math.max(1, now - startTime) / MB);
+            synchronized (this) {
+                // A stalled upload has not closed its window
+                activity.setCurrentMbPerSecond(now - windowStart > 2000 ? 0 : currentMbPerSecond);
+            }
+            activity.setThrottledMs(throttledMs.get());
+            activity.setRequests(requests);
+            activity.setShaped(shaped);
+            return activity;
+        }
+    }
+
+    private final class ShapedInputStream extends FilterInputStream {
+
+        private final Upload upload;
+
+        private ShapedInputStream(InputStream in, Upload upload) {
+            super(in);
+            this.upload = upload;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                charge(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, Math.min(len, READ_SLICE));
+            if (n > 0) {
+                charge(n);
+            }
+            return n;
+        }
+
+        private void charge(int n) throws IOException {
+            upload.received(n);
+            long waitMs = upload.bucket != null ? upload.bucket.reserve(n) : 0;
+            if (totalBucket != null) {
+                waitMs = Math.max(waitMs, totalBucket.reserve(n));
+            }
+            if (waitMs > 0) {
+                upload.throttledMs.addAndGet(waitMs);
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Upload interrupted while throttled");
+                }
+            }
+        }
+    }
+
+    /**
+     * Refills at the rate up to one second's worth. Reservations may overdraw it; the caller waits
+     * until the debt would be paid back, so concurrent readers queue up behind each other.
+     */
+    private static final class TokenBucket {
+
+        private final double bytesPerMs;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(long bytesPerSecond) {
+            this.bytesPerMs = bytesPerSecond / 1000.0;
+            this.capacity = bytesPerSecond;
+            this.tokens = capacity;
+        }
+
+        /**
+         * @return milliseconds to wait before using the bytes
+         */
+        private synchronized long reserve(long bytes) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / 1_000_000.0 * bytesPerMs);
+            lastRefill = now;
+            tokens -= bytes;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / bytesPerMs);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ArchiveFormat;
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+import com.sajid.serverManagement.util.ZipIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answers questions about an archive's layout without inflating it. The folder index is built from
+ * the central directory and cached by path, size and modification time, so a re-uploaded archive
+ * under the same name is indexed again while repeated lookups on an unchanged one are served from
+ * memory.
+ */
+@Service
+public class ZipInspectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipInspectionService.class);
+
+    public record Inspection(ZipIndex index, boolean cached, long indexMs) {}
+
+    private record Key(Path path, long size, long lastModified) {}
+
+    private final Map<Key, ZipIndex> cache;
+    private final String basePath;
+
+    public ZipInspectionService(@Value("${extraction.inspect.cache-size:32}") int cacheSize,
+                                @Value("${server.base-path}") String basePath) {
+        this.basePath = basePath;
+        // Access-ordered, so the least recently inspected archive is dropped first
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ZipIndex> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException for tarballs, which have no central directory to index, and
+     *                                  for files outside the base path
+     */
+    public Inspection inspect(Path archive) throws IOException {
+        // Checked before the file is looked at, so the answer says nothing about paths elsewhere,
+        // and again through links, so none can point the listing at a file outside the base path
+        if (!archive.toAbsolutePath().normalize().startsWith(Paths.get(basePath).toAbsolutePath().normalize())) {
+            throw new IllegalArgumentException("Not an archive under " + basePath + ": " + archive);
+        }
+        if (!Files.exists(archive)) {
+            throw new IOException("ZIP file not found: " + archive);
+        }
+        if (!archive.toRealPath().startsWith(Paths.get(basePath).toRealPath())) {
+            throw new IllegalArgumentException("Not an archive under " + basePath + ": " + archive);
+        }
+        ArchiveFormat format = ArchiveFormat.of(archive.getFileName().toString());
+        if (format != null && format.isTar()) {
+            throw new IllegalArgumentException("Tar archives cannot be inspected without reading them in full: " + archive);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        Key key = new Key(archive.toAbsolutePath().normalize(), attributes.size(), attributes.lastModifiedTime().toMillis());
+
+        synchronized (cache) {
+            ZipIndex index = cache.get(key);
+            if (index != null) {
+                return new Inspection(index, true, 0);
+            }
+        }
+
+        // Built outside the lock; two concurrent first lookups of one archive just build it twice
+        long started = System.currentTimeMillis();
+        ZipIndex index;
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            index = ZipIndex.build(ZipCentralDirectory.read(channel));
+        }
+        long indexMs = System.currentTimeMillis() - started;
+        logger.info("Indexed {} ({} entries, {} folders) in {} ms", archive, index.getEntryCount(),
+                index.getFolderCount(), indexMs);
+
+        synchronized (cache) {
+            cache.put(key, index);
+        }
+        return new Inspection(index, false, indexMs);
+    }
+}
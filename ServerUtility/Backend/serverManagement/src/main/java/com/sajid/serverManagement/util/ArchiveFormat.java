@@ -0,0 +1,57 @@
+package com.sajid.serverManagement.util;
+
+import java.util.Locale;
+
+/**
+ * Archive types the upload and extraction endpoints accept, recognised by file name. ZIPs are read
+ * through their central directory; tarballs have none and are extracted as one sequential stream.
+ */
+public enum ArchiveFormat {
+    ZIP(".zip"),
+    TAR(".tar"),
+    TAR_GZ(".tar.gz", ".tgz"),
+    TAR_ZST(".tar.zst", ".tzst");
+
+    private final String[] suffixes;
+
+    ArchiveFormat(String... suffixes) {
+        this.suffixes = suffixes;
+    }
+
+    public boolean isTar() {
+        return this != ZIP;
+    }
+
+    /**
+     * @return the format, or null when the name has none of the supported extensions
+     */
+    public static ArchiveFormat of(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        for (ArchiveFormat format : values()) {
+            for (String suffix : format.suffixes) {
+                if (name.endsWith(suffix)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * File name without the archive extension ("app.tar.gz" becomes "app"); names of unknown
+     * formats lose only their last extension
+     */
+    public static String baseName(String fileName) {
+        ArchiveFormat format = of(fileName);
+        if (format != null) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            for (String suffix : format.suffixes) {
+                if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                    return fileName.substring(0, fileName.length() - suffix.length());
+                }
+            }
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
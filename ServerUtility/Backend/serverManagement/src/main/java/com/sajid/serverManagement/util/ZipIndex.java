@@ -0,0 +1,166 @@
+package com.sajid.serverManagement.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folder tree of a ZIP archive built from its central directory alone. Only folders are kept as
+ * nodes; files are folded into the counts and sizes of every folder above them, so an archive with
+ * 100k entries costs a few thousand small objects and each lookup is a walk down the path.
+ * Folders that have no entry of their own (common in archives built by scripts) are inferred from
+ * the file paths.
+ */
+public final class ZipIndex {
+
+    public static final class Folder {
+        private final String name;
+        private final String path;      // Archive path with trailing slash, "" for the root
+        private final Map<String, Folder> children = new HashMap<>();
+        private int directFiles;
+        private int totalFiles;
+        private long totalSize;
+        private long totalCompressedSize;
+
+        private Folder(String name, String path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Subfolders sorted by name
+         */
+        public List<Folder> getFolders() {
+            List<Folder> folders = new ArrayList<>(children.values());
+            folders.sort(Comparator.comparing(Folder::getName));
+            return folders;
+        }
+
+        public Folder getFolder(String name) {
+            return children.get(name);
+        }
+
+        public int getDirectFiles() {
+            return directFiles;
+        }
+
+        public int getTotalFiles() {
+            return totalFiles;
+        }
+
+        public long getTotalSize() {
+            return totalSize;
+        }
+
+        public long getTotalCompressedSize() {
+            return totalCompressedSize;
+        }
+
+        private Folder child(String name) {
+            return children.computeIfAbsent(name, n -> new Folder(n, path + n + "/"));
+        }
+    }
+
+    private final Folder root = new Folder("", "");
+    private final int entryCount;
+    private int folderCount;
+
+    private ZipIndex(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public static ZipIndex build(Collection<ZipCentralDirectory.Entry> entries) {
+        ZipIndex index = new ZipIndex(entries.size());
+        for (ZipCentralDirectory.Entry entry : entries) {
+            index.add(entry);
+        }
+        return index;
+    }
+
+    private void add(ZipCentralDirectory.Entry entry) {
+        String name = entry.getName();
+        boolean directory = entry.isDirectory();
+        Folder folder = root;
+        int start = 0;
+        int slash;
+        while ((slash = name.indexOf('/', start)) >= 0) {
+            if (slash > start) {
+                Folder next = folder.children.get(name.substring(start, slash));
+                if (next == null) {
+                    next = folder.child(name.substring(start, slash));
+                    folderCount++;
+                }
+                if (!directory) {
+                    folder.totalFiles++;
+                    folder.totalSize += entry.getSize();
+                    folder.totalCompressedSize += entry.getCompressedSize();
+                }
+                folder = next;
+            }
+            start = slash + 1;
+        }
+        if (!directory) {
+            folder.directFiles++;
+            folder.totalFiles++;
+            folder.totalSize += entry.getSize();
+            folder.totalCompressedSize += entry.getCompressedSize();
+        }
+    }
+
+    public Folder getRoot() {
+        return root;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public int getFolderCount() {
+        return folderCount;
+    }
+
+    /**
+     * Folder at an archive path such as "jboss-eap-7.4/standalone", or null when there is none
+     */
+    public Folder find(String path) {
+        Folder folder = root;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            folder = folder.getFolder(segment);
+            if (folder == null) {
+                return null;
+            }
+        }
+        return folder;
+    }
+
+    /**
+     * Server root of a patch or server archive: a top-level folder named like the archive, else the
+     * first top-level jboss-eap* folder, else null
+     */
+    public Folder detectRoot(String archiveBaseName) {
+        Folder named = root.getFolder(archiveBaseName);
+        if (named != null) {
+            return named;
+        }
+        for (Folder folder : root.getFolders()) {
+            if (folder.getName().startsWith("jboss-eap")) {
+                return folder;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.WaitResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveWaiterTests {
+
+    @Test
+    @DisplayName("Condition met on the third probe is detected without waiting for the timeout")
+    void detectsConditionQuickly() throws Exception {
+        AdaptiveWaiter waiter = new AdaptiveWaiter(10, 40, 2.0, 0.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        WaitResult result = waiter.await("test", 5_000, () -> calls.incrementAndGet() >= 3);
+
+        assertTrue(result.satisfied());
+        assertEquals(3, result.probes());
+        // 10 + 20 + 40 ms of sleeps, far below the 5 s timeout
+        assertTrue(result.elapsedMs() < 1_000, "elapsed " + result.elapsedMs());
+    }
+
+    @Test
+    @DisplayName("Timeout is reported with the number of probes spent")
+    void reportsTimeout() throws Exception {
+        AdaptiveWaiter waiter = new AdaptiveWaiter(10, 20, 2.0, 0.0);
+
+        WaitResult result = waiter.await("never", 150, () -> false);
+
+        assertFalse(result.satisfied());
+        assertTrue(result.probes() >= 5, "probes " + result.probes());
+        assertTrue(result.elapsedMs() >= 140, "elapsed " + result.elapsedMs());
+    }
+
+    @Test
+    @DisplayName("Statistics aggregate probe counts across waits")
+    void aggregatesStatistics() throws Exception {
+        AdaptiveWaiter waiter = new AdaptiveWaiter(5, 5, 1.0, 0.0);
+        waiter.await("a", 1_000, () -> true);
+        waiter.await("b", 30, () -> false);
+
+        Map<String, Object> stats = waiter.getStatistics();
+
+        assertEquals(2L, stats.get("total_waits"));
+        assertEquals(1L, stats.get("satisfied_waits"));
+        assertEquals(1L, stats.get("timed_out_waits"));
+    }
+
+    @Test
+    @DisplayName("Jitter stays within the configured fraction")
+    void jitterIsBounded() {
+        AdaptiveWaiter waiter = new AdaptiveWaiter(100, 1_000, 2.0, 0.2);
+        for (int i = 0; i < 1_000; i++) {
+            long delay = waiter.jittered(1_000);
+            assertTrue(delay >= 800 && delay <= 1_200, "delay " + delay);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.DeploymentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeploymentServiceTests {
+
+    @TempDir
+    Path basePath;
+
+    @Test
+    @DisplayName("Deploy waits for the scanner to replace .dodeploy with .deployed, and reports .failed")
+    void followsMarkersToTheResult() throws Exception {
+        Path deployments = Files.createDirectories(basePath.resolve("NewgenONE-1/jboss-eap/standalone/deployments"));
+        DeploymentService service = new DeploymentService();
+        ReflectionTestUtils.setField(service, "basePath", basePath.toString());
+        ReflectionTestUtils.setField(service, "adaptiveWaiter", new AdaptiveWaiter(10, 40, 2.0, 0.0));
+        ReflectionTestUtils.setField(service, "createDodeploy", true);
+        ReflectionTestUtils.setField(service, "pickupTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(service, "deployTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(service, "pollInitialMs", 10L);
+        ReflectionTestUtils.setField(service, "pollMaxMs", 40L);
+        byte[] war = {1, 2, 3};
+
+        // Stand-in for the deployment scanner: deploys app.war, fails broken.war
+        Thread scanner = new Thread(() -> {
+            try {
+                for (String name : new String[] {"app.war", "broken.war"}) {
+                    Path marker = deployments.resolve(name + ".dodeploy");
+                    while (!Files.exists(marker)) {
+                        Thread.sleep(5);
+                    }
+                    Files.delete(marker);
+                    Files.writeString(deployments.resolve(name + (name.equals("app.war") ? ".deployed" : ".failed")),
+                            name.equals("app.war") ? "" : "WFLYSRV0153: Failed to process phase PARSE");
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        scanner.start();
+
+        DeploymentStatus deployed = service.deploy(new MockMultipartFile("tmpFile", "app.war", null, war),
+                deployments.toString(), true);
+        DeploymentStatus failed = service.deploy(new MockMultipartFile("tmpFile", "broken.war", null, war),
+                deployments.toString(), true);
+        scanner.join(5_000);
+
+        assertEquals(DeploymentStatus.Status.DEPLOYED, deployed.getStatus());
+        assertArrayEquals(war, Files.readAllBytes(deployments.resolve("app.war")));
+        try (Stream<Path> files = Files.list(deployments)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".uploading")));
+        }
+        assertTrue(deployed.getPhaseMs().keySet().containsAll(
+                List.of("upload", "publish", "scannerPickup", "deploy")), deployed.getPhaseMs().toString());
+
+        assertEquals(DeploymentStatus.Status.FAILED, failed.getStatus());
+        assertTrue(failed.getFailureReason().contains("WFLYSRV0153"));
+
+        // Only a server's deployments folder under the base path is accepted
+        Path outside = Files.createDirectories(basePath.resolve("NewgenONE-1/jboss-eap/bin"));
+        assertThrows(IllegalArgumentException.class, () -> service.deploy(
+                new MockMultipartFile("tmpFile", "app.war", null, war), outside.toString(), true));
+        assertThrows(IllegalArgumentException.class, () -> service.deploy(
+                new MockMultipartFile("tmpFile", "app.war", null, war), deployments + "/../../bin", true));
+        assertThrows(IllegalArgumentException.class, () -> service.upload(
+                new MockMultipartFile("tmpFile", "app.war", null, war), outside.toString()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.dto.ExtractionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExtractionTaskStoreTests {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    @DisplayName("A removed task is gone from the live entries, the history and the history file")
+    void removeForgetsTheHistoryToo() {
+        ExtractionTaskStore store = newStore();
+        for (String taskId : new String[] {"kept", "removed"}) {
+            ExtractionStatus status = new ExtractionStatus(taskId, ExtractionStatus.Status.COMPLETED, "done");
+            status.setEndTime(System.currentTimeMillis());
+            store.put(status);
+            store.finished(status);
+        }
+
+        assertNotNull(store.remove("removed"));
+        assertNull(store.get("removed"));
+        assertEquals(1, store.count(null));
+
+        ExtractionTaskStore reloaded = newStore();
+        reloaded.loadHistory();
+        assertNull(reloaded.get("removed"));
+        assertNotNull(reloaded.get("kept"));
+    }
+
+    private ExtractionTaskStore newStore() {
+        ExtractionTaskStore store = new ExtractionTaskStore();
+        ReflectionTestUtils.setField(store, "maxSize", 500);
+        ReflectionTestUtils.setField(store, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(store, "historyEnabled", true);
+        ReflectionTestUtils.setField(store, "historyMaxEntries", 1000);
+        ReflectionTestUtils.setField(store, "dataDirectory", dataDirectory.toString());
+        return store;
+    }
+}
@@ -0,0 +1,304 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.exception.ExtractionPausedException;
+import com.sajid.serverManagement.util.ZipCentralDirectory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelZipExtractorTests {
+
+    private static final long ENTRY_TIME = 1_700_000_000_000L;
+
+    private static ExecutorService workers;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void startWorkers() {
+        workers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void stopWorkers() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Nested directories and files of mixed sizes are extracted byte-for-byte")
+    void extractsAllEntries() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        Random random = new Random(42);
+        files.put("jboss-eap-7.4/bin/standalone.sh", "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 20; i++) {
+            byte[] content = new byte[random.nextInt(200_000)];
+            random.nextBytes(content);
+            files.put("jboss-eap-7.4/modules/system/layers/base/m" + i + "/main/module-" + i + ".jar", content);
+        }
+        Path zip = writeZip(files, "jboss-eap-7.4/", "jboss-eap-7.4/standalone/tmp/");
+
+        long expectedBytes = files.values().stream().mapToLong(content -> content.length).sum();
+        AtomicInteger reports = new AtomicInteger();
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 4, new ExtractionIo(ExtractionIo.Settings.defaults()));
+        ParallelZipExtractor.Progress progress = extractor.extract(zip, tempDir.resolve("out"), p -> {
+            assertEquals(expectedBytes, p.getTotalBytes());
+            reports.incrementAndGet();
+        });
+
+        assertEquals(files.size() + 2, progress.getTotalEntries());
+        assertEquals(progress.getTotalEntries(), progress.getCompletedEntries());
+        assertEquals(expectedBytes, progress.getBytesWritten());
+        assertEquals(100, progress.getPercentage());
+        assertTrue(reports.get() >= 2, "initial and final report");
+        assertTrue(Files.isDirectory(tempDir.resolve("out/jboss-eap-7.4/standalone/tmp")));
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            assertArrayEquals(file.getValue(), Files.readAllBytes(tempDir.resolve("out").resolve(file.getKey())), file.getKey());
+        }
+    }
+
+    @Test
+    @DisplayName("STORED entries are copied verbatim and inflated entries survive buffers smaller than the entry")
+    void handlesStoredEntriesAndSmallBuffers() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 6; i++) {
+            byte[] content = new byte[100_000 + i * 50_000];
+            random.nextBytes(content);
+            files.put("lib/stored-" + i + ".jar", content);
+            files.put("conf/deflated-" + i + ".xml", ("<server id=\"" + i + "\"/>\n").repeat(5_000).getBytes(StandardCharsets.UTF_8));
+        }
+        files.put("empty.txt", new byte[0]);
+        Path zip = writeZip(files, name -> name.endsWith(".jar"));
+
+        ExtractionIo io = new ExtractionIo(new ExtractionIo.Settings(4096, false, 64 * 1024, true));
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 3, io);
+        extractor.extract(zip, tempDir.resolve("out"), ParallelZipExtractor.ProgressListener.NONE);
+
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            assertArrayEquals(file.getValue(), Files.readAllBytes(tempDir.resolve("out").resolve(file.getKey())), file.getKey());
+        }
+    }
+
+    @Test
+    @DisplayName("A damaged STORED entry fails its CRC check whether it is transferred or copied")
+    void storedEntriesAreVerified() throws Exception {
+        byte[] content = ("stored payload ").repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        Path zip = writeZip(Map.of("lib/stored.jar", content), name -> true);
+        byte[] archive = Files.readAllBytes(zip);
+        String marker = "stored payload stored payload";
+        int at = new String(archive, StandardCharsets.ISO_8859_1).indexOf(marker);
+        archive[at + 1000] ^= 1;
+        Files.write(zip, archive);
+
+        for (boolean transfer : new boolean[] {true, false}) {
+            ExtractionIo io = new ExtractionIo(new ExtractionIo.Settings(4096, false, 64 * 1024, transfer));
+            ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 2, io);
+            IOException e = assertThrows(IOException.class, () -> extractor.extract(zip,
+                    tempDir.resolve("out-" + transfer), ParallelZipExtractor.ProgressListener.NONE));
+            assertTrue(e.getMessage().contains("CRC mismatch"), e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental re-extraction rewrites only changed entries and removes orphans")
+    void incrementalSkipsUnchangedEntries() throws Exception {
+        Path out = tempDir.resolve("out");
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 2, new ExtractionIo(ExtractionIo.Settings.defaults()));
+
+        Map<String, byte[]> v1 = new LinkedHashMap<>();
+        v1.put("modules/a.jar", "same".getBytes(StandardCharsets.UTF_8));
+        v1.put("modules/b.jar", "old".getBytes(StandardCharsets.UTF_8));
+        v1.put("modules/c.jar", "removed".getBytes(StandardCharsets.UTF_8));
+        extractor.extract(writeZip(v1), out, ParallelZipExtractor.ProgressListener.NONE);
+        Files.writeString(out.resolve("standalone.log"), "runtime data");
+
+        Map<String, byte[]> v2 = new LinkedHashMap<>();
+        v2.put("modules/a.jar", "same".getBytes(StandardCharsets.UTF_8));
+        v2.put("modules/b.jar", "patched".getBytes(StandardCharsets.UTF_8));
+        v2.put("modules/d.jar", "added".getBytes(StandardCharsets.UTF_8));
+        ExtractionOptions options = ExtractionOptions.defaults();
+        options.setIncremental(true);
+        options.setDeleteOrphans(true);
+        ParallelZipExtractor.Progress progress = extractor.extract(writeZip(v2), out, options,
+                ParallelZipExtractor.ProgressListener.NONE);
+
+        assertEquals(1, progress.getUnchangedEntries());
+        assertEquals(1, progress.getDeletedOrphans());
+        assertEquals("patched".length() + "added".length(), progress.getBytesWritten());
+        assertEquals("patched", Files.readString(out.resolve("modules/b.jar")));
+        assertEquals("added", Files.readString(out.resolve("modules/d.jar")));
+        assertFalse(Files.exists(out.resolve("modules/c.jar")));
+        assertTrue(Files.exists(out.resolve("standalone.log")), "files not from the archive are kept");
+    }
+
+    @Test
+    @DisplayName("A journal left by an interrupted run makes the next run skip finished entries")
+    void resumesFromJournal() throws Exception {
+        Path out = tempDir.resolve("out");
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 2, new ExtractionIo(ExtractionIo.Settings.defaults()));
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            files.put("modules/m" + i + ".jar", ("module " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        Path zip = writeZip(files);
+        extractor.extract(zip, out, ParallelZipExtractor.ProgressListener.NONE);
+
+        // Simulate a crash after two entries: journal lists them, the rest is missing
+        Files.delete(out.resolve(ExtractionManifest.FILE_NAME));
+        Files.delete(out.resolve("modules/m2.jar"));
+        Files.delete(out.resolve("modules/m3.jar"));
+        StringBuilder journal = new StringBuilder();
+        try (FileChannel channel = FileChannel.open(zip)) {
+            for (ZipCentralDirectory.Entry entry : ZipCentralDirectory.read(channel)) {
+                if (entry.getName().endsWith("m0.jar") || entry.getName().endsWith("m1.jar")) {
+                    journal.append(ExtractionManifest.line(entry));
+                }
+            }
+        }
+        Files.writeString(out.resolve(ExtractionJournal.FILE_NAME), journal + "0\t12\tbroken");
+
+        ParallelZipExtractor.Progress progress = extractor.extract(zip, out, ParallelZipExtractor.ProgressListener.NONE);
+
+        assertEquals(2, progress.getResumedEntries());
+        assertEquals("module 2".length() + "module 3".length(), progress.getBytesWritten());
+        assertEquals("module 3", Files.readString(out.resolve("modules/m3.jar")));
+        assertFalse(Files.exists(out.resolve(ExtractionJournal.FILE_NAME)));
+
+        ExtractionOptions cancelled = ExtractionOptions.defaults();
+        cancelled.setControl(new ExtractionControl());
+        cancelled.getControl().cancel();
+        assertThrows(CancellationException.class,
+                () -> extractor.extract(zip, out, cancelled, ParallelZipExtractor.ProgressListener.NONE));
+    }
+
+    @Test
+    @DisplayName("Include and exclude patterns select a subtree and report what they skipped")
+    void extractsOnlyMatchingEntries() throws Exception {
+        Path out = tempDir.resolve("out");
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 2, new ExtractionIo(ExtractionIo.Settings.defaults()));
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("jboss-eap-7.4/standalone/deployments/app.war", "app".getBytes(StandardCharsets.UTF_8));
+        files.put("jboss-eap-7.4/standalone/deployments/app.war.dodeploy", new byte[0]);
+        files.put("jboss-eap-7.4/standalone/deploymentsx/other.war", "other".getBytes(StandardCharsets.UTF_8));
+        files.put("jboss-eap-7.4/modules/big.jar", new byte[1000]);
+
+        ExtractionOptions options = ExtractionOptions.defaults();
+        options.setEntryFilter(PathPatternFilter.of(List.of("jboss-eap-*/standalone/deployments"), List.of("**/*.dodeploy")));
+        ParallelZipExtractor.Progress progress = extractor.extract(writeZip(files, "jboss-eap-7.4/"), out, options,
+                ParallelZipExtractor.ProgressListener.NONE);
+
+        assertEquals("app", Files.readString(out.resolve("jboss-eap-7.4/standalone/deployments/app.war")));
+        assertFalse(Files.exists(out.resolve("jboss-eap-7.4/standalone/deployments/app.war.dodeploy")));
+        assertFalse(Files.exists(out.resolve("jboss-eap-7.4/standalone/deploymentsx")));
+        assertFalse(Files.exists(out.resolve("jboss-eap-7.4/modules")));
+        assertEquals(4, progress.getSkippedEntries());
+        assertEquals("other".length() + 1000, progress.getSkippedBytes());
+        assertEquals(1, progress.getFilesWritten());
+    }
+
+    @Test
+    @DisplayName("A paused extraction hands its worker threads back, so other extractions keep running")
+    void pauseReleasesWorkers() throws Exception {
+        ExecutorService singleWorker = Executors.newSingleThreadExecutor();
+        try {
+            ParallelZipExtractor extractor = new ParallelZipExtractor(singleWorker, 1, new ExtractionIo(ExtractionIo.Settings.defaults()));
+            Map<String, byte[]> files = new LinkedHashMap<>();
+            for (int i = 0; i < 4; i++) {
+                files.put("modules/m" + i + ".jar", ("module " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            Path zip = writeZip(files);
+
+            ExtractionOptions paused = ExtractionOptions.defaults();
+            paused.setControl(new ExtractionControl());
+            Path pausedOut = tempDir.resolve("paused");
+            // Paused once the workers are about to start
+            assertThrows(ExtractionPausedException.class, () -> extractor.extract(zip, pausedOut, paused,
+                    p -> paused.getControl().pause()));
+            assertTrue(paused.getControl().park());
+
+            ParallelZipExtractor.Progress other = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> extractor.extract(zip, tempDir.resolve("other"), ParallelZipExtractor.ProgressListener.NONE));
+            assertEquals(files.size(), other.getCompletedEntries());
+
+            assertTrue(paused.getControl().resume());
+            extractor.extract(zip, pausedOut, paused, ParallelZipExtractor.ProgressListener.NONE);
+            assertEquals("module 3", Files.readString(pausedOut.resolve("modules/m3.jar")));
+        } finally {
+            singleWorker.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Entries escaping the extraction directory are rejected before anything is written")
+    void rejectsZipSlip() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("ok.txt", new byte[10]);
+        files.put("../evil.txt", new byte[10]);
+        Path zip = writeZip(files);
+
+        ParallelZipExtractor extractor = new ParallelZipExtractor(workers, 4, new ExtractionIo(ExtractionIo.Settings.defaults()));
+
+        assertThrows(IOException.class, () -> extractor.extract(zip, tempDir.resolve("out"), ParallelZipExtractor.ProgressListener.NONE));
+        assertFalse(Files.exists(tempDir.resolve("evil.txt")));
+        assertFalse(Files.exists(tempDir.resolve("out/ok.txt")));
+    }
+
+    private Path writeZip(Map<String, byte[]> files, String... directories) throws IOException {
+        return writeZip(files, name -> false, directories);
+    }
+
+    private Path writeZip(Map<String, byte[]> files, Predicate<String> stored, String... directories) throws IOException {
+        Path zip = tempDir.resolve("archive.zip");
+        try (OutputStream out = Files.newOutputStream(zip); ZipOutputStream zos = new ZipOutputStream(out)) {
+            for (String directory : directories) {
+                zos.putNextEntry(new ZipEntry(directory));
+                zos.closeEntry();
+            }
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                ZipEntry entry = new ZipEntry(file.getKey());
+                entry.setTime(ENTRY_TIME);
+                if (stored.test(file.getKey())) {
+                    CRC32 crc = new CRC32();
+                    crc.update(file.getValue());
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(file.getValue().length);
+                    entry.setCrc(crc.getValue());
+                }
+                zos.putNextEntry(entry);
+                zos.write(file.getValue());
+                zos.closeEntry();
+            }
+        }
+        return zip;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.exception.ServerOperationConflictException;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.ConflictPolicy;
+import com.sajid.serverManagement.service.ServerOperationCoordinator.OperationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerOperationCoordinatorTests {
+
+    private final ServerOperationCoordinator coordinator = new ServerOperationCoordinator();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Duplicate start requests collapse into one launch")
+    void collapsesDuplicateStarts() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger launches = new AtomicInteger();
+
+        Future<String> first = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_A", 8080,
+                ConflictPolicy.REJECT, () -> {
+                    launches.incrementAndGet();
+                    running.countDown();
+                    release.await();
+                    return "started";
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        Future<String> second = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_A", 8080,
+                ConflictPolicy.REJECT, () -> {
+                    launches.incrementAndGet();
+                    return "duplicate";
+                }));
+        awaitStatistic("collapsed", 1L);
+        release.countDown();
+
+        assertEquals("started", first.get(5, TimeUnit.SECONDS));
+        assertEquals("started", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    @DisplayName("A start of another server on the same port is rejected while one is in flight")
+    void rejectsConflictOnSharedPort() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> first = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_A", 8080,
+                ConflictPolicy.REJECT, () -> {
+                    running.countDown();
+                    release.await();
+                    return null;
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServerOperationConflictException.class, () -> coordinator.execute(OperationType.START,
+                "NewgenONE_B", 8080, ConflictPolicy.REJECT, () -> null));
+        assertThrows(ServerOperationConflictException.class, () -> coordinator.execute(OperationType.STOP,
+                null, 8080, ConflictPolicy.REJECT, () -> null));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("A queued stop runs after the in-flight start finishes")
+    void queuesConflictingOperation() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger order = new AtomicInteger();
+
+        Future<Integer> start = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_A", 8080,
+                ConflictPolicy.REJECT, () -> {
+                    running.countDown();
+                    release.await();
+                    return order.incrementAndGet();
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        Future<Integer> stop = executor.submit(() -> coordinator.execute(OperationType.STOP, null, 8080,
+                ConflictPolicy.QUEUE, order::incrementAndGet));
+        awaitStatistic("queued", 1L);
+        release.countDown();
+
+        assertEquals(1, start.get(5, TimeUnit.SECONDS));
+        assertEquals(2, stop.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Operations on different servers and ports run in parallel")
+    void differentServersRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        Future<Boolean> a = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_A", 8080,
+                ConflictPolicy.REJECT, () -> {
+                    bothRunning.countDown();
+                    return bothRunning.await(5, TimeUnit.SECONDS);
+                }));
+        Future<Boolean> b = executor.submit(() -> coordinator.execute(OperationType.START, "NewgenONE_B", 8180,
+                ConflictPolicy.REJECT, () -> {
+                    bothRunning.countDown();
+                    return bothRunning.await(5, TimeUnit.SECONDS);
+                }));
+
+        assertTrue(a.get(10, TimeUnit.SECONDS));
+        assertTrue(b.get(10, TimeUnit.SECONDS));
+    }
+
+    private void awaitStatistic(String name, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Long.valueOf(expected).equals(coordinator.getStatistics().get(name))) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for " + name);
+            Thread.sleep(5);
+        }
+    }
+}
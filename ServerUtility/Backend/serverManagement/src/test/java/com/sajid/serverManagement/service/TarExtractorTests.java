@@ -0,0 +1,92 @@
+package com.sajid.serverManagement.service;
+
+import com.sajid.serverManagement.util.ArchiveFormat;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarExtractorTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("tar.zst entries with ./ prefixes and hard links are extracted byte-for-byte")
+    void extractsZstdTarball() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        Random random = new Random(7);
+        files.put("./jboss-eap-7.4/bin/standalone.sh", "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 10; i++) {
+            byte[] content = new byte[random.nextInt(300_000)];
+            random.nextBytes(content);
+            files.put("./jboss-eap-7.4/modules/m" + i + "/module-" + i + ".jar", content);
+        }
+        Path archive = tempDir.resolve("build.tar.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(archive));
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            tar.putArchiveEntry(new TarArchiveEntry("./"));
+            tar.closeArchiveEntry();
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(file.getValue().length);
+                tar.putArchiveEntry(entry);
+                tar.write(file.getValue());
+                tar.closeArchiveEntry();
+            }
+            TarArchiveEntry link = new TarArchiveEntry("./jboss-eap-7.4/bin/run.sh", TarArchiveEntry.LF_LINK);
+            link.setLinkName("./jboss-eap-7.4/bin/standalone.sh");
+            tar.putArchiveEntry(link);
+            tar.closeArchiveEntry();
+        }
+
+        Path out = tempDir.resolve("out");
+        ParallelZipExtractor.Progress progress = new TarExtractor().extract(archive, ArchiveFormat.TAR_ZST, out,
+                ExtractionOptions.defaults(), ParallelZipExtractor.ProgressListener.NONE);
+
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            assertArrayEquals(file.getValue(), Files.readAllBytes(out.resolve(file.getKey())), file.getKey());
+        }
+        assertArrayEquals(files.get("./jboss-eap-7.4/bin/standalone.sh"), Files.readAllBytes(out.resolve("jboss-eap-7.4/bin/run.sh")));
+        assertEquals(files.size() + 1, progress.getFilesWritten());
+        assertEquals(Files.size(archive), progress.getCompressedBytesRead());
+        assertEquals(100, progress.getPercentage());
+        assertTrue(ExtractionManifest.load(out).containsKey("jboss-eap-7.4/modules/m3/module-3.jar"));
+    }
+
+    @Test
+    @DisplayName("A tar.gz entry that escapes the extraction directory is rejected")
+    void rejectsTarSlip() throws Exception {
+        Path archive = tempDir.resolve("evil.tar.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive));
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            TarArchiveEntry entry = new TarArchiveEntry("../escaped.txt", true);
+            entry.setSize(4);
+            tar.putArchiveEntry(entry);
+            tar.write("evil".getBytes(StandardCharsets.UTF_8));
+            tar.closeArchiveEntry();
+        }
+
+        assertThrows(IOException.class, () -> new TarExtractor().extract(archive, ArchiveFormat.TAR_GZ,
+                tempDir.resolve("out"), ExtractionOptions.defaults(), ParallelZipExtractor.ProgressListener.NONE));
+        assertFalse(Files.exists(tempDir.resolve("escaped.txt")));
+    }
+}
@@ -311,7 +311,7 @@ const UploadZipModal = ({ isOpen, onClose, onUpload }) => {
                 <div className="upload-icon">📁</div>
                 <h4>Drop your ZIP file here</h4>
                 <p>or <span className="upload-browse-text">browse files</span></p>
-                <small>Supports ZIP files up to 5GB</small>
+                <small>Supports ZIP files up to 5GB; interrupted uploads resume where they stopped</small>
               </div>
             ) : (
               <div className="upload-file-info">
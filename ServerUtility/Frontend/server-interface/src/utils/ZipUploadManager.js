@@ -0,0 +1,155 @@
+// Client for the resumable chunked upload API (/api/files/uploads).
+// Chunks are sent several at a time; an interrupted upload of the same file resumes with the
+// chunks the server is still missing. Completion starts an async extraction that is then polled.
+
+const API_BASE = 'http://localhost:8081/api/files'
+const CHUNK_SIZE = 8 * 1024 * 1024
+const PARALLEL_CHUNKS = 4
+const CHUNK_ATTEMPTS = 4
+const BUSY_RETRY_SECONDS = 5
+const POLL_INTERVAL_MS = 1000
+const UPLOAD_SHARE = 80 // Percent of the progress bar used by the upload, the rest is extraction
+
+const sleep = (ms) => new Promise(resolve => setTimeout(resolve, ms))
+
+class ZipUploadManager {
+  constructor(token) {
+    this.token = token
+  }
+
+  headers(extra = {}) {
+    return { 'Authorization': `Bearer ${this.token}`, ...extra }
+  }
+
+  async request(url, options = {}) {
+    const response = await fetch(url, { mode: 'cors', ...options, headers: this.headers(options.headers) })
+    let data = null
+    try {
+      data = await response.json()
+    } catch {
+      // Empty body (404 on a session lookup)
+    }
+    if (!response.ok) {
+      const error = new Error(data?.message || `Server error: ${response.status} - ${response.statusText}`)
+      error.status = response.status
+      error.retryAfter = Number(response.headers.get('Retry-After')) || 0
+      throw error
+    }
+    return data
+  }
+
+  // Same file picked again (name, size and modification time) resumes its session
+  resumeKey(file) {
+    return `chunked-upload:${file.name}:${file.size}:${file.lastModified}`
+  }
+
+  async openSession(file) {
+    const key = this.resumeKey(file)
+    const uploadId = localStorage.getItem(key)
+    if (uploadId) {
+      try {
+        return await this.request(`${API_BASE}/uploads/${uploadId}`)
+      } catch (error) {
+        if (error.status !== 404) throw error
+        localStorage.removeItem(key)
+      }
+    }
+    const created = await this.request(`${API_BASE}/uploads`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ fileName: file.name, size: file.size, chunkSize: CHUNK_SIZE })
+    })
+    localStorage.setItem(key, created.session.uploadId)
+    return created.session
+  }
+
+  async sendChunk(file, session, index) {
+    const start = index * session.chunkSize
+    const chunk = file.slice(start, Math.min(start + session.chunkSize, session.size))
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await this.request(`${API_BASE}/uploads/${session.uploadId}/chunks/${index}`, {
+          method: 'PUT',
+          headers: { 'Content-Type': 'application/octet-stream' },
+          body: chunk
+        })
+        return chunk.size
+      } catch (error) {
+        if (error.status === 429) {
+          // Server is at its upload limit; waiting for a slot does not use up an attempt
+          attempt--
+          await sleep((error.retryAfter || BUSY_RETRY_SECONDS) * 1000)
+          continue
+        }
+        // Client errors will not go away by retrying
+        if (attempt >= CHUNK_ATTEMPTS || (error.status >= 400 && error.status < 500)) throw error
+        await sleep(500 * 2 ** (attempt - 1))
+      }
+    }
+  }
+
+  async uploadChunks(file, session, onProgress) {
+    const pending = [...session.missingChunks]
+    let uploaded = session.receivedBytes
+    const report = () => onProgress(
+      (uploaded / session.size) * UPLOAD_SHARE,
+      `Uploading: ${Math.round((uploaded / session.size) * 100)}%`
+    )
+    report()
+
+    const worker = async () => {
+      while (pending.length > 0) {
+        const index = pending.shift()
+        uploaded += await this.sendChunk(file, session, index)
+        report()
+      }
+    }
+    await Promise.all(Array.from({ length: Math.min(PARALLEL_CHUNKS, pending.length) }, worker))
+  }
+
+  async waitForExtraction(taskId, onProgress) {
+    for (;;) {
+      const status = await this.request(`${API_BASE}/extraction-status/${taskId}`)
+      if (status.status === 'COMPLETED') return status.extractionPath
+      if (status.status === 'FAILED' || status.status === 'CANCELLED') {
+        throw new Error(status.errorMessage || `Extraction ${status.status.toLowerCase()}`)
+      }
+      const message = status.status === 'PENDING' && status.queuePosition > 0
+        ? `Waiting for extraction (position ${status.queuePosition} in queue)`
+        : status.message || 'Extracting...'
+      onProgress(UPLOAD_SHARE + (status.progressPercentage * (100 - UPLOAD_SHARE)) / 100, message)
+      await sleep(POLL_INTERVAL_MS)
+    }
+  }
+
+  async uploadAndExtractLarge(file, onProgress, onComplete, onError) {
+    try {
+      onProgress(0, 'Preparing upload...')
+      const session = await this.openSession(file)
+      await this.uploadChunks(file, session, onProgress)
+
+      onProgress(UPLOAD_SHARE, 'Verifying upload...')
+      const completed = await this.request(`${API_BASE}/uploads/${session.uploadId}/complete`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ extract: true })
+      })
+      localStorage.removeItem(this.resumeKey(file))
+      if (completed.extractionPath) {
+        // Same archive as one already uploaded and extracted
+        onComplete(completed.extractionPath)
+        return
+      }
+      if (!completed.taskId) {
+        throw new Error(completed.message)
+      }
+
+      const extractionPath = await this.waitForExtraction(completed.taskId, onProgress)
+      onComplete(extractionPath)
+    } catch (error) {
+      onError(error.message || 'Upload failed. Please try again.')
+    }
+  }
+}
+
+export default ZipUploadManager